@@ -0,0 +1,59 @@
+package com.example.todoapp.benchmarks;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.todoapp.TodoAppApplication;
+import com.example.todoapp.models.TodoItem;
+
+/**
+ * Starts the application on its own in-memory H2 database and seeds it with realistic data.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application on a random port and an empty database.
+     *
+     * @param name the name of the in-memory database, unique per benchmark
+     * @return the running application
+     */
+    static ConfigurableApplicationContext start(String name) {
+        return new SpringApplicationBuilder(TodoAppApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + name + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * Seeds users and their todo items: one item per minute over the last months, a third of them complete,
+     * spread over ten categories and five stores.
+     *
+     * @param jdbcTemplate the template of the application database
+     * @param users        the number of users, with IDs from 1
+     * @param itemsPerUser the number of todo items of each user
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int users, int itemsPerUser) {
+        jdbcTemplate.update("insert into users (id, name, password, username)"
+                + " select x, 'User ' || x, 'secret', 'user' || x from system_range(1, ?)", users);
+        jdbcTemplate.update("insert into todo_items"
+                + " (id, description, is_complete, created_at, updated_at, item_category, quantity, store_name, user_id)"
+                + " select x, 'Comprar item ' || x, mod(x, 3) = 0,"
+                + " dateadd(minute, x / ?, timestamp with time zone '2023-01-01 00:00:00+00'),"
+                + " dateadd(minute, x / ?, timestamp with time zone '2023-01-01 00:00:00+00'),"
+                + " 'categoria ' || mod(x, 10), mod(x, 12) + 1, 'loja ' || mod(x, 5), mod(x, ?) + 1"
+                + " from system_range(1, ?)", users, users, users, (long) users * itemsPerUser);
+        // The pooled optimizer takes the value read as the end of its block, see TodoItemSequenceInitializer
+        jdbcTemplate.execute("alter sequence " + TodoItem.ID_SEQUENCE + " restart with "
+                + ((long) users * itemsPerUser + TodoItem.ID_ALLOCATION_SIZE));
+        jdbcTemplate.execute("analyze");
+    }
+}
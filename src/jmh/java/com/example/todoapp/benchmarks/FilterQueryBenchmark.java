@@ -0,0 +1,77 @@
+package com.example.todoapp.benchmarks;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.todoapp.dto.TodoItemFilter;
+import com.example.todoapp.dto.TodoItemPage;
+import com.example.todoapp.services.TodoItemService;
+
+/**
+ * Cost of reading the first page of each kind of filter the index page offers,
+ * for one user among 20 users with 10k todo items each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterQueryBenchmark {
+
+    private static final Instant START = Instant.parse("2023-01-01T00:00:00Z");
+
+    @Param({"user", "dateRange", "complete", "notComplete", "category", "store", "combined"})
+    public String filter;
+
+    private ConfigurableApplicationContext app;
+    private TodoItemService todoItemService;
+    private TodoItemFilter todoItemFilter;
+
+    @Setup(Level.Trial)
+    public void start() {
+        app = BenchmarkApplication.start("filter");
+        BenchmarkApplication.seed(app.getBean(JdbcTemplate.class), 20, 10_000);
+        todoItemService = app.getBean(TodoItemService.class);
+
+        Instant from = START.plus(2, ChronoUnit.DAYS);
+        Instant to = START.plus(4, ChronoUnit.DAYS);
+        todoItemFilter = switch (filter) {
+            case "user" -> TodoItemFilter.forUser(7L);
+            case "dateRange" -> new TodoItemFilter(7L, from, to, null, null, null);
+            case "complete" -> new TodoItemFilter(7L, from, to, true, null, null);
+            case "notComplete" -> new TodoItemFilter(7L, from, to, false, null, null);
+            case "category" -> new TodoItemFilter(7L, null, null, null, "categoria 6", null);
+            case "store" -> new TodoItemFilter(7L, null, null, null, null, "loja 1");
+            case "combined" -> new TodoItemFilter(7L, from, to, true, "categoria 6", "loja 1");
+            default -> throw new IllegalArgumentException("Unknown filter: " + filter);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        app.close();
+    }
+
+    @Benchmark
+    public TodoItemPage firstPage() {
+        return todoItemService.findPage(todoItemFilter, null, null, 50);
+    }
+}
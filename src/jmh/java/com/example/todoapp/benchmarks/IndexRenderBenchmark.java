@@ -0,0 +1,83 @@
+package com.example.todoapp.benchmarks;
+
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import com.example.todoapp.dto.TodoItemView;
+
+/**
+ * Cost of rendering {@code index.html} with the application's template engine for lists of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexRenderBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int items;
+
+    private ConfigurableApplicationContext app;
+    private SpringTemplateEngine templateEngine;
+    private WebContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        app = BenchmarkApplication.start("render");
+        templateEngine = app.getBean(SpringTemplateEngine.class);
+
+        List<TodoItemView> todoItems = new ArrayList<>(items);
+        Instant createdAt = Instant.parse("2023-01-01T00:00:00Z");
+        for (long i = 1; i <= items; i++) {
+            todoItems.add(new TodoItemView(i, "Comprar item " + i, i % 3 == 0, "categoria " + i % 10,
+                    (int) (i % 12) + 1, "loja " + i % 5, createdAt.plusSeconds(i * 60)));
+        }
+
+        MockServletContext servletContext = new MockServletContext();
+        JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+        context = new WebContext(application.buildExchange(
+                new MockHttpServletRequest(servletContext, "GET", "/"), new MockHttpServletResponse()));
+        context.setVariable("name", "user1");
+        context.setVariable("todoItems", todoItems);
+        context.setVariable("nextPageUrl", "/?after=cursor");
+        // A request attribute set by Spring Security's CsrfFilter on real requests
+        context.setVariable("_csrf", new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "token"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        app.close();
+    }
+
+    @Benchmark
+    public void renderIndex() {
+        templateEngine.process("index", context, Writer.nullWriter());
+    }
+}
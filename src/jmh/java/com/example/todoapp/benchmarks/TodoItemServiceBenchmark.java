@@ -0,0 +1,63 @@
+package com.example.todoapp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.repositories.UserRepository;
+import com.example.todoapp.services.TodoItemService;
+
+/**
+ * Cost of creating a todo item through {@link TodoItemService#save(TodoItem)}, one transaction per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoItemServiceBenchmark {
+
+    private ConfigurableApplicationContext app;
+    private TodoItemService todoItemService;
+    private Users owner;
+
+    @Setup(Level.Trial)
+    public void start() {
+        app = BenchmarkApplication.start("service");
+        BenchmarkApplication.seed(app.getBean(JdbcTemplate.class), 10, 1_000);
+        todoItemService = app.getBean(TodoItemService.class);
+        owner = app.getBean(UserRepository.class).findById(1L).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        app.close();
+    }
+
+    @Benchmark
+    public TodoItem save() {
+        TodoItem todoItem = new TodoItem();
+        todoItem.setDescription("Comprar pão");
+        todoItem.setItemCategory("padaria");
+        todoItem.setQuantity(2);
+        todoItem.setStoreName("padaria da esquina");
+        todoItem.setUser(owner);
+        return todoItemService.save(todoItem);
+    }
+}
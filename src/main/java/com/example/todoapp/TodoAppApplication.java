@@ -1,13 +1,45 @@
 package com.example.todoapp;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TodoAppApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(TodoAppApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(TodoAppApplication.class, args);
+		if (context.getEnvironment().getProperty("todoapp.training-run", Boolean.class, false)) {
+			exitTrainingRun(context);
+		}
+	}
+
+	/**
+	 * Ends the training run of the fast-startup build (see the pom) once the app has started and served a first page,
+	 * so the class data sharing archive dumped at exit holds the classes loaded by both.
+	 */
+	private static void exitTrainingRun(ConfigurableApplicationContext context) {
+		URI signin = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/signin");
+		int status;
+		try {
+			status = HttpClient.newHttpClient()
+					.send(HttpRequest.newBuilder(signin).build(), HttpResponse.BodyHandlers.discarding())
+					.statusCode();
+		} catch (IOException e) {
+			throw new IllegalStateException("Training request to " + signin + " failed", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Training request to " + signin + " interrupted", e);
+		}
+		System.exit(SpringApplication.exit(context, () -> status == 200 ? 0 : 1));
 	}
 
 }
@@ -0,0 +1,45 @@
+package com.example.todoapp.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import com.example.todoapp.services.AuthCookieService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates each request from its stateless sign-in cookie, in place of the session.
+ * A cookie that no longer verifies, e.g. expired or revoked, is cleared.
+ */
+final class AuthCookieAuthenticationFilter extends OncePerRequestFilter {
+
+    private final AuthCookieService authCookieService;
+
+    AuthCookieAuthenticationFilter(AuthCookieService authCookieService) {
+        this.authCookieService = authCookieService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Cookie cookie = WebUtils.getCookie(request, AuthCookieService.COOKIE);
+        if (cookie != null && !cookie.getValue().isEmpty()) {
+            authCookieService.authenticate(cookie.getValue()).ifPresentOrElse(user -> {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+                SecurityContextHolder.setContext(context);
+            }, () -> response.addHeader(HttpHeaders.SET_COOKIE, authCookieService.clear(request.isSecure()).toString()));
+        }
+        chain.doFilter(request, response);
+    }
+}
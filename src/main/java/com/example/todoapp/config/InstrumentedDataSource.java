@@ -0,0 +1,126 @@
+package com.example.todoapp.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Data source timing every statement executed through its connections.
+ *
+ * <p>Each execution is recorded in the {@code jdbc.statements} timer and counted for the current request
+ * (see {@link SqlStatementCounter}). Executions slower than the threshold are counted in
+ * {@code jdbc.statements.slow} and logged by the {@code com.example.todoapp.slow-query} logger with the SQL
+ * as prepared: bound parameters appear as {@code ?} and their values are never logged.
+ *
+ * <p>Closing it closes the data source it wraps, so the connection pool is shut down with the application.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements Closeable {
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("com.example.todoapp.slow-query");
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Duration slowQueryThreshold;
+    private volatile Timer timer;
+    private volatile Counter slowCounter;
+
+    /**
+     * @param target             the data source to instrument
+     * @param meterRegistry      the registry to record to, resolved on first use
+     * @param slowQueryThreshold the execution time from which statements are logged, zero or negative to disable
+     */
+    public InstrumentedDataSource(DataSource target, ObjectProvider<MeterRegistry> meterRegistry,
+            Duration slowQueryThreshold) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection instrument(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                        return instrument(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object instrument(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    long started = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        record(sql, System.nanoTime() - started);
+                    }
+                });
+    }
+
+    private void record(String sql, long nanos) {
+        SqlStatementCounter.increment();
+        if (timer == null) {
+            MeterRegistry registry = meterRegistry.getObject();
+            timer = Timer.builder("jdbc.statements")
+                    .description("Execution time of the JDBC statements")
+                    .register(registry);
+            slowCounter = Counter.builder("jdbc.statements.slow")
+                    .description("JDBC statements slower than the slow query threshold")
+                    .register(registry);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        if (!slowQueryThreshold.isNegative() && !slowQueryThreshold.isZero() && nanos >= slowQueryThreshold.toNanos()) {
+            slowCounter.increment();
+            slowQueryLog.warn("Slow statement took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(nanos), sql);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
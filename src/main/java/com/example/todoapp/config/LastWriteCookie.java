@@ -0,0 +1,78 @@
+package com.example.todoapp.config;
+
+import java.time.Duration;
+
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Carries the time of a client's last write in a cookie, so that whichever node serves its next requests,
+ * not only the one that served the write, keeps its reads on the primary database for the sticky window.
+ * The cookie isn't signed: forging it only moves the client's own reads between the primary and the replicas.
+ */
+class LastWriteCookie {
+
+    static final String NAME = "last_write";
+
+    private final Duration stickyWindow;
+
+    /**
+     * @param stickyWindow how long the reads of a client stay on the primary after it writes
+     */
+    LastWriteCookie(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    /**
+     * Records a write made while serving the current request, for the rest of the request and, through the
+     * cookie, for the client's next ones. Writes made outside of a request, or once the response is committed,
+     * only reach the rest of the request, if any.
+     */
+    void written() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        attributes.getRequest().setAttribute(NAME, now);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(NAME, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, stickyWindow.toSeconds() + 1));
+            response.addCookie(cookie);
+        }
+    }
+
+    /**
+     * Tells whether the current request comes from a client that wrote within the sticky window.
+     * Without a request, nothing tells when the data read was last written, so the answer is yes.
+     *
+     * @return whether the reads of the current request must see the primary's latest writes
+     */
+    boolean writtenRecently() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return true;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Long written = request.getAttribute(NAME) instanceof Long time ? time : cookie(request);
+        return written != null && System.currentTimeMillis() - written < stickyWindow.toMillis();
+    }
+
+    private static Long cookie(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, NAME);
+        if (cookie == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.todoapp.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Instrumentation added on top of the metrics Spring Boot records itself. Boot already times every
+ * repository method ({@code spring.data.repository.invocations}), HTTP requests ({@code http.server.requests})
+ * and, when Hibernate collects statistics, binds them ({@code hibernate.*}).
+ * This adds the JDBC statement timings and slow query log, the SQL statement count per request and the
+ * template render times. Everything is scraped from {@code /actuator/prometheus}.
+ *
+ * <p>Collecting the Hibernate statistics costs every session some bookkeeping, so it is opt-in with
+ * {@code todoapp.metrics.hibernate-statistics=true}.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Wraps the data source to time the statements executed through it.
+     */
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${todoapp.slow-query.threshold:200ms}") Duration slowQueryThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, meterRegistry, slowQueryThreshold);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Counts the statements of each request, around every other filter so the security filters' queries count too.
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter() {
+        FilterRegistrationBean<SqlStatementCountFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementCountFilter(meterRegistry.getObject()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TemplateRenderTimingInterceptor(meterRegistry.getObject()));
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "todoapp.metrics.hibernate-statistics", havingValue = "true")
+    static class HibernateStatistics {
+
+        @Bean
+        public HibernatePropertiesCustomizer hibernateStatisticsEnabled() {
+            return (properties) -> properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.todoapp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.example.todoapp.services.UserVersionService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Opt-in read/write splitting: read-only transactions, such as listing, filtering and exporting todo items,
+ * are served by one or more read replicas, and everything else by the primary database configured in
+ * {@code spring.datasource}. Enabled with {@code todoapp.read-replicas.enabled=true}; each of the comma-separated
+ * JDBC URLs in {@code todoapp.read-replicas.urls} gets its own connection pool of
+ * {@code todoapp.read-replicas.maximum-pool-size} connections.
+ *
+ * <p>Replicas may lag behind the primary, so for {@code todoapp.read-replicas.sticky-window} after a client
+ * writes, its reads stay on the primary, on every node: the time of the write is handed to the client in
+ * a cookie ({@link LastWriteCookie}). Clients that don't keep cookies, and other users, may see the write late,
+ * by up to the replication lag. Read-only transactions outside of a request always go to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todoapp.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /**
+     * Wraps the primary data source to route read-only transactions to the replicas.
+     */
+    @Bean
+    public static ReadReplicaDataSourcePostProcessor readReplicaDataSourcePostProcessor(Environment environment) {
+        return new ReadReplicaDataSourcePostProcessor(environment);
+    }
+
+    /**
+     * Hands the time of every write to the client of the request that made it.
+     */
+    @Bean
+    // Nothing depends on it, so with lazy initialization it would never register itself
+    @Lazy(false)
+    public LastWriteCookie lastWriteCookie(Environment environment, UserVersionService userVersionService) {
+        LastWriteCookie lastWrite = new LastWriteCookie(stickyWindow(environment));
+        userVersionService.onWrite(userId -> lastWrite.written());
+        return lastWrite;
+    }
+
+    private static Duration stickyWindow(Environment environment) {
+        return environment.getProperty("todoapp.read-replicas.sticky-window", Duration.class, Duration.ofSeconds(5));
+    }
+
+    private static List<DataSource> replicas(Environment environment) {
+        String[] urls = StringUtils.commaDelimitedListToStringArray(
+                environment.getProperty("todoapp.read-replicas.urls", ""));
+        if (urls.length == 0) {
+            throw new IllegalStateException("Read replicas need at least one JDBC URL in todoapp.read-replicas.urls");
+        }
+        String username = environment.getProperty("todoapp.read-replicas.username",
+                environment.getProperty("spring.datasource.username"));
+        String password = environment.getProperty("todoapp.read-replicas.password",
+                environment.getProperty("spring.datasource.password"));
+        int maximumPoolSize = environment.getProperty("todoapp.read-replicas.maximum-pool-size", Integer.class, 10);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls[i].trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return replicas;
+    }
+
+    /**
+     * Runs before the other post processors, so the instrumentation wraps the routing data source
+     * and the statements sent to the replicas are timed and counted too.
+     */
+    static class ReadReplicaDataSourcePostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final Environment environment;
+
+        ReadReplicaDataSourcePostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource primary && "dataSource".equals(beanName)
+                    && !(bean instanceof ReadReplicaDataSource)) {
+                return new ReadReplicaDataSource(primary, replicas(environment),
+                        new LastWriteCookie(stickyWindow(environment)));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
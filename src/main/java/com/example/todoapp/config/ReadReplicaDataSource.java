@@ -0,0 +1,87 @@
+package com.example.todoapp.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Data source sending the statements of read-only transactions to the read replicas, round-robin,
+ * and everything else to the primary database. Reads of a client who wrote within the sticky window
+ * stay on the primary, so they see their own writes even if the replicas lag behind; the time of the
+ * last write comes with the request, see {@link LastWriteCookie}, so every node routes alike.
+ *
+ * <p>Connections are only fetched on the first statement: the transaction manager opens the connection
+ * before marking the transaction read-only, so routing on the connection request would always pick the primary.
+ */
+class ReadReplicaDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+
+    /**
+     * @param primary      the data source of the primary database
+     * @param replicas     the data sources of the read replicas, at least one
+     * @param lastWrite    tells whether the client of the current request wrote recently
+     */
+    ReadReplicaDataSource(DataSource primary, List<DataSource> replicas, LastWriteCookie lastWrite) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        Router router = new Router(lastWrite, this.replicas.size());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.setLenientFallback(false);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            close(replica);
+        }
+        close(primary);
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static class Router extends AbstractRoutingDataSource {
+
+        private final LastWriteCookie lastWrite;
+        private final int replicaCount;
+        private final AtomicInteger next = new AtomicInteger();
+
+        Router(LastWriteCookie lastWrite, int replicaCount) {
+            this.lastWrite = lastWrite;
+            this.replicaCount = replicaCount;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || lastWrite.writtenRecently()) {
+                return PRIMARY;
+            }
+            return Math.floorMod(next.getAndIncrement(), replicaCount);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.todoapp.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Opt-in second-level cache of {@link TodoItem} and {@link Users} by ID, held in this process,
+ * so e.g. the edit form and its submission don't both fetch the item.
+ * Enabled with {@code todoapp.second-level-cache.enabled=true}; each entity gets its own region,
+ * bounded to {@code todoapp.second-level-cache.max-entries} entries kept for at most {@code ttl}.
+ *
+ * <p>Entity writes update the regions, and Hibernate empties a region whenever a bulk statement
+ * (e.g. completing or deleting many items) changes its table. Writes made by other processes
+ * are only seen once the entries expire. Hits, misses, puts and evictions of each region are
+ * exposed as the {@code cache.*} metrics, tagged with the region name.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<String> REGIONS = List.of(TodoItem.class.getName(), Users.class.getName());
+
+    /**
+     * Keeps the cache off unless enabled: Hibernate would otherwise start it on its own,
+     * as soon as it finds the JCache provider on the classpath.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "todoapp.second-level-cache.enabled", havingValue = "false", matchIfMissing = true)
+    public HibernatePropertiesCustomizer secondLevelCacheDisabled() {
+        return (properties) -> properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "todoapp.second-level-cache.enabled", havingValue = "true")
+    static class Enabled {
+
+        @Bean(destroyMethod = "close")
+        public CacheManager secondLevelCacheManager(
+                @Value("${todoapp.second-level-cache.max-entries:10000}") long maxEntries,
+                @Value("${todoapp.second-level-cache.ttl:10m}") Duration ttl) {
+            CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                    .getCacheManager(URI.create("todoapp-second-level-cache"), getClass().getClassLoader());
+            for (String region : REGIONS) {
+                CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+                configuration.setMaximumSize(OptionalLong.of(maxEntries));
+                configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+                configuration.setStatisticsEnabled(true);
+                if (cacheManager.getCache(region) != null) {
+                    cacheManager.destroyCache(region);
+                }
+                cacheManager.createCache(region, configuration);
+            }
+            return cacheManager;
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer secondLevelCacheEnabled(CacheManager secondLevelCacheManager) {
+            return (properties) -> {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+                // Every region is created above, a missing one is a mapping mistake
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            };
+        }
+
+        @Bean
+        public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+            return (registry) -> REGIONS.forEach(region ->
+                    JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(region)));
+        }
+    }
+}
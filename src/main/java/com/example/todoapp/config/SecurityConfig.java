@@ -1,12 +1,42 @@
 package com.example.todoapp.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.session.SessionRegistryImpl;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.DelegatingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.web.util.WebUtils;
+
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.services.AuthCookieService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
 
 
 @Configuration
@@ -14,22 +44,99 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectProvider<AuthCookieService> authCookieService)
+            throws Exception {
         http
                 .authorizeHttpRequests((requests) -> requests
-                        .requestMatchers("/signup").permitAll()
+                        .requestMatchers("/signup", "/error", "/webjars/**", "/static/**").permitAll()
+                        // Metrics are scraped locally, without signing in
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).access(new WebExpressionAuthorizationManager(
+                                "hasIpAddress('127.0.0.1') or hasIpAddress('::1')"))
                         .anyRequest().authenticated())
                 .formLogin((form) -> form
                         .loginPage("/signin")
+                        .failureHandler(authenticationFailureHandler())
                         .permitAll())
                 .logout((logout) -> logout.permitAll());
 
+        AuthCookieService cookies = authCookieService.getIfAvailable();
+        if (cookies == null) {
+            http.sessionManagement((session) -> session
+                    .maximumSessions(-1)
+                    .sessionRegistry(sessionRegistry()));
+        } else {
+            statelessAuthentication(http, cookies);
+        }
+
         return http.build();
     }
 
+    /**
+     * Stateless mode: no session is created, signing in issues a signed cookie that authenticates
+     * the following requests, the CSRF token is kept in a cookie too, and signing out revokes the cookie.
+     */
+    private void statelessAuthentication(HttpSecurity http, AuthCookieService cookies) throws Exception {
+        SimpleUrlAuthenticationSuccessHandler redirectHome = new SimpleUrlAuthenticationSuccessHandler("/");
+        http
+                .sessionManagement((session) -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext((context) -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+                .requestCache((cache) -> cache.requestCache(new NullRequestCache()))
+                .csrf((csrf) -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+                .formLogin((form) -> form
+                        .successHandler((request, response, authentication) -> {
+                            response.addHeader(HttpHeaders.SET_COOKIE, cookies
+                                    .issue((AuthenticatedUser) authentication.getPrincipal(), request.isSecure()).toString());
+                            redirectHome.onAuthenticationSuccess(request, response, authentication);
+                        }))
+                .logout((logout) -> logout
+                        .logoutRequestMatcher(new AntPathRequestMatcher("/signout", "GET"))
+                        .addLogoutHandler((request, response, authentication) -> {
+                            Cookie cookie = WebUtils.getCookie(request, AuthCookieService.COOKIE);
+                            if (cookie != null) {
+                                cookies.revoke(cookie.getValue());
+                            }
+                            response.addHeader(HttpHeaders.SET_COOKIE, cookies.clear(request.isSecure()).toString());
+                        })
+                        .logoutSuccessUrl("/signin"))
+                .addFilterBefore(new AuthCookieAuthenticationFilter(cookies), UsernamePasswordAuthenticationFilter.class);
+    }
+
+    /**
+     * Tracks the sessions of each principal, so they can be expired when the user changes.
+     */
+    @Bean
+    public SessionRegistry sessionRegistry() {
+        return new SessionRegistryImpl();
+    }
+
+    @Bean
+    public HttpSessionEventPublisher httpSessionEventPublisher() {
+        return new HttpSessionEventPublisher();
+    }
+
+    /**
+     * Answers 503 when the password could not be verified because hashing is overloaded,
+     * and falls back to the sign-in page with an error for any other failure.
+     */
+    private AuthenticationFailureHandler authenticationFailureHandler() {
+        LinkedHashMap<Class<? extends AuthenticationException>, AuthenticationFailureHandler> handlers = new LinkedHashMap<>();
+        handlers.put(PasswordHashingRejectedException.class,
+                (request, response, exception) -> response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value()));
+        return new DelegatingAuthenticationFailureHandler(handlers, new SimpleUrlAuthenticationFailureHandler("/signin?error"));
+    }
+
+    /**
+     * BCrypt encoder running on a bounded executor, so bursts of logins and signups
+     * can't exhaust the request threads.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.password-hashing.threads:0}") int threads,
+            @Value("${todoapp.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${todoapp.password-hashing.timeout:2s}") Duration timeout) {
         int strength = 10; // Set the desired strength (e.g., 10)
-        return new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, timeout, meterRegistry);
     }
 }
@@ -0,0 +1,73 @@
+package com.example.todoapp.config;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements executed while handling each HTTP request.
+ *
+ * <p>The count is sent in the {@value #HEADER} response header, as of the moment the response is committed
+ * (or once the request is handled, for responses without a body),
+ * recorded in the {@code http.server.requests.sql.statements} summary by method and URI pattern, and logged
+ * at debug level by the {@code com.example.todoapp.requests} logger with the final count.
+ * Statements run after the handler returns on other threads, e.g. by streamed responses, aren't counted.
+ */
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    /**
+     * The response header carrying the number of SQL statements executed.
+     */
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private static final Logger requestLog = LoggerFactory.getLogger("com.example.todoapp.requests");
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        SqlStatementCounter.start();
+        HttpServletResponse countingResponse = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                setHeader(HEADER, String.valueOf(SqlStatementCounter.current()));
+            }
+        };
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            if (!response.isCommitted()) {
+                // Bodiless responses are only committed once the filters return
+                response.setHeader(HEADER, String.valueOf(statements));
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("SQL statements executed per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            requestLog.debug("{} {} status={} time={}ms sqlStatements={}", request.getMethod(), uri,
+                    response.getStatus(), (System.nanoTime() - started) / 1_000_000, statements);
+        }
+    }
+}
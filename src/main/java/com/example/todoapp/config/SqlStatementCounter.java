@@ -0,0 +1,35 @@
+package com.example.todoapp.config;
+
+/**
+ * Counts the SQL statements executed by the current thread while a count is started,
+ * i.e. while it handles an HTTP request.
+ */
+final class SqlStatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    static int current() {
+        int[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+}
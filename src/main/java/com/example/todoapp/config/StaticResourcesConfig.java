@@ -0,0 +1,52 @@
+package com.example.todoapp.config;
+
+import java.time.Duration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+/**
+ * Serves webjars and static assets under content-hashed URLs, e.g.
+ * {@code /webjars/bootstrap/5.2.2/css/bootstrap.min-<md5>.css}, so they can be cached forever:
+ * a changed file gets a new URL. Templates link assets with {@code @{...}} and the URLs are
+ * rewritten to the hashed ones when rendered.
+ *
+ * <p>The {@code .gz} and {@code .br} variants built next to the assets (see the pom) are served to
+ * clients accepting them. Replaces Spring Boot's default resource mappings, disabled with
+ * {@code spring.web.resources.add-mappings=false}.
+ */
+@Configuration
+public class StaticResourcesConfig implements WebMvcConfigurer {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/webjars/**")
+                .addResourceLocations("classpath:/META-INF/resources/webjars/")
+                .setCacheControl(IMMUTABLE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        registry.addResourceHandler("/static/**")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(IMMUTABLE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * Rewrites the asset URLs built by the templates to their content-hashed form.
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
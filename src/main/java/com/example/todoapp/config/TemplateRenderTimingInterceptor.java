@@ -0,0 +1,53 @@
+package com.example.todoapp.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records the time spent rendering each template in the {@code thymeleaf.render} timer, tagged by template.
+ * The view is rendered between {@link #postHandle} and {@link #afterCompletion}.
+ */
+public class TemplateRenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED = TemplateRenderTimingInterceptor.class.getName() + ".started";
+    private static final String TEMPLATE = TemplateRenderTimingInterceptor.class.getName() + ".template";
+
+    private final MeterRegistry meterRegistry;
+
+    public TemplateRenderTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+            ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith(UrlBasedViewResolver.REDIRECT_URL_PREFIX)
+                || modelAndView.getViewName().startsWith(UrlBasedViewResolver.FORWARD_URL_PREFIX)) {
+            return;
+        }
+        request.setAttribute(TEMPLATE, modelAndView.getViewName());
+        request.setAttribute(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(STARTED) instanceof Long started
+                && request.getAttribute(TEMPLATE) instanceof String template) {
+            Timer.builder("thymeleaf.render")
+                    .description("Time spent rendering Thymeleaf templates")
+                    .tag("template", template)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.todoapp.config;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.todoapp.models.TodoItem;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves the todo item ID sequence past the IDs already stored, before anything is inserted.
+ * Todo items used to take their IDs from an auto-increment column; the pooled sequence that replaced it
+ * (a table on MySQL) is created by {@code ddl-auto} starting at 1, so on an existing database its first
+ * blocks would hand out IDs that are already taken. Only a sequence behind the stored IDs is moved,
+ * so this is a no-op on every later start, on every node.
+ */
+@Component
+// Nothing depends on it, so with lazy initialization it would never run
+@Lazy(false)
+public class TodoItemSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoItemSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public TodoItemSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    void moveSequence() {
+        moveSequencePastStoredIds(jdbcTemplate, dialect);
+    }
+
+    /**
+     * Moves the sequence so that its next block starts after the largest stored ID. The pooled optimizer
+     * takes the value {@code v} read from the sequence as the end of its block, {@code v - 49} to {@code v},
+     * so the sequence must be at least the largest ID plus the allocation size.
+     *
+     * @param jdbcTemplate the template to run the statements with
+     * @param dialect      the dialect of the database, telling whether it has native sequences
+     */
+    static void moveSequencePastStoredIds(JdbcTemplate jdbcTemplate, Dialect dialect) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM todo_items", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long next = maxId + TodoItem.ID_ALLOCATION_SIZE;
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            // Reading the sequence reserves one block, which is simply never used
+            Long current = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(TodoItem.ID_SEQUENCE), Long.class);
+            if (current < next) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + TodoItem.ID_SEQUENCE + " RESTART WITH " + next);
+                log.info("Moved sequence {} from {} to {}, past the stored todo item IDs",
+                        TodoItem.ID_SEQUENCE, current, next);
+            }
+        } else {
+            // Table-backed sequence: one conditional update, safe with several nodes starting at once
+            int moved = jdbcTemplate.update(
+                    "UPDATE " + TodoItem.ID_SEQUENCE + " SET next_val = ? WHERE next_val < ?", next, next);
+            if (moved > 0) {
+                log.info("Moved sequence table {} to {}, past the stored todo item IDs", TodoItem.ID_SEQUENCE, next);
+            }
+        }
+    }
+}
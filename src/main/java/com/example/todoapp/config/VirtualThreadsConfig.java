@@ -0,0 +1,36 @@
+package com.example.todoapp.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Opt-in execution mode running every request, and so every repository call made while handling it,
+ * on its own virtual thread instead of Tomcat's fixed platform-thread pool.
+ * Enabled with {@code todoapp.virtual-threads.enabled=true}, or the {@code virtual-threads} profile,
+ * which also sizes the connection pool: with virtual threads the pool, not the thread count,
+ * is what limits the number of concurrent queries.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todoapp.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return (protocolHandler) -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Runs async request processing (e.g. streaming response bodies) on virtual threads too.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
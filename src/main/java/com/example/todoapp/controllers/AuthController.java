@@ -1,7 +1,7 @@
 package com.example.todoapp.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -25,6 +25,8 @@ public class AuthController {
 
     @Autowired
     UserRepository userRepository;
+    @Autowired
+    PasswordEncoder passwordEncoder;
 
     /**
      * Handles the request for the home page based on the user's authentication status.
@@ -68,13 +70,14 @@ public class AuthController {
     /**
      * Handles the request to signup a new user.
      * Encrypts the user's password, saves the user to the database, and redirects to the signin page.
+     * Answers 503 if the password hashing executor is saturated.
      *
      * @param user the user object containing the signup form data
      * @return a string representing the redirect URL to the signin page
      */
     @PostMapping("/signup")
     public String signupUser(@ModelAttribute Users user) {
-        user.setPassword(new BCryptPasswordEncoder().encode(user.getPassword()));
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(user);
         return "signin";
     }
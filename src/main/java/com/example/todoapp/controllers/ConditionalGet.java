@@ -0,0 +1,39 @@
+package com.example.todoapp.controllers;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.todoapp.services.UserVersionService;
+
+/**
+ * Answers conditional GETs from a user's version, before the handler does any work.
+ */
+final class ConditionalGet {
+
+    /**
+     * Browsers must revalidate on every use, and shared caches must not store per-user pages.
+     * Setting it also keeps Spring Security from sending its default no-store.
+     */
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Checks the request's If-None-Match / If-Modified-Since headers against a version and adds the
+     * validators to the response. When this returns true the response is already a 304 and the handler
+     * must return null.
+     *
+     * @param request the current request
+     * @param version the version of the data the response depends on
+     * @param scope   what the response depends on besides the version
+     * @return true if the client's copy is still current
+     */
+    static boolean notModified(ServletWebRequest request, UserVersionService.Version version, String scope) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return request.checkNotModified(version.eTag(scope), version.lastModified().toEpochMilli());
+    }
+}
@@ -2,94 +2,178 @@ package com.example.todoapp.controllers;
 
 import org.springframework.stereotype.Controller;
 
-import com.example.todoapp.models.TodoItem;
-import com.example.todoapp.models.Users;
-import com.example.todoapp.repositories.UserRepository;
+import com.example.todoapp.dto.TodoItemCursor;
+import com.example.todoapp.dto.TodoItemFilter;
+import com.example.todoapp.dto.TodoItemPage;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.services.TodoItemSearchService;
 import com.example.todoapp.services.TodoItemService;
+import com.example.todoapp.services.UserVersionService;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import jakarta.servlet.http.HttpSession;
 
 @Controller
 public class HomeController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private TodoItemService todoItemService;
     @Autowired
-    private UserRepository userRepository;
+    private TodoItemSearchService todoItemSearchService;
+    @Autowired
+    private UserVersionService userVersionService;
 
     /**
-     * Displays the index page with the list of todo items for the authenticated user.
+     * Displays the index page with one page of the todo items for the authenticated user.
      *
-     * @param authentication the authentication object containing information about the authenticated user
-     * @return a ModelAndView object with the "index" view and the list of todo items for the authenticated user
+     * @param principal      the principal of the authenticated user
+     * @param after          the cursor after which the page starts, or null for the first page
+     * @param before         the cursor before which the page ends, or null
+     * @param size           the maximum number of todo items in the page
+     * @param request        the current request, used to answer conditional GETs
+     * @return a ModelAndView object with the "index" view and the page of todo items for the authenticated user,
+     *         or null if the client's copy is still current
+     * @throws ResponseStatusException with a bad request status if a cursor is not valid
      */
     @GetMapping("/")
-    public ModelAndView index(Authentication authentication) {
+    public ModelAndView index(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "50") int size,
+            ServletWebRequest request
+    ) {
+        TodoItemCursor afterCursor = cursor(after);
+        TodoItemCursor beforeCursor = cursor(before);
+        if (notModified(request, principal)) {
+            return null;
+        }
+
         ModelAndView modelAndView = new ModelAndView("index");
 
-        // Assuming you have the authenticated user available in the "authentication" object
-        Users authenticatedUser = userRepository.findByUsername(authentication.getName());
-        String authenticatedUserName = authentication.getName();
+        // The principal already carries the user ID, no need to look the user up
+        String authenticatedUserName = principal.getUsername();
 
-        // Retrieve todo items added by the authenticated user
-        List<TodoItem> todoItems = todoItemService.findByUser(authenticatedUser);
+        // Retrieve one page of the todo items added by the authenticated user
+        TodoItemPage page = todoItemService.findPage(TodoItemFilter.forUser(principal.getId()),
+                afterCursor, beforeCursor, pageSize(size));
 
         modelAndView.addObject("name", authenticatedUserName);
-        modelAndView.addObject("todoItems", todoItems);
+        addPage(modelAndView, page);
+        // Created items sort last in the unfiltered list, so only its last page shows them where they belong
+        modelAndView.addObject("showsCreatedItems", !page.hasNext());
         return modelAndView;
     }
 
     /**
      * Filters the todo items based on the specified criteria and retrieves the filtered items for the authenticated user.
      *
-     * @param authentication     the authentication object containing information about the authenticated user
+     * @param principal          the principal of the authenticated user
      * @param startDate          the start date for filtering the todo items (inclusive)
      * @param endDate            the end date for filtering the todo items (inclusive)
      * @param completedCheckbox  the checkbox indicating whether to include completed items (true) or not (false or null)
      * @param notCompletedCheckbox  the checkbox indicating whether to include not completed items (true) or not (false or null)
-     * @return a ModelAndView object with the "index" view containing the filtered todo items
+     * @param itemCategory       the category of the todo items to include, or null for any category
+     * @param storeName          the store of the todo items to include, or null for any store
+     * @param after              the cursor after which the page starts, or null for the first page
+     * @param before             the cursor before which the page ends, or null
+     * @param size               the maximum number of todo items in the page
+     * @param request            the current request, used to answer conditional GETs
+     * @return a ModelAndView object with the "index" view containing the filtered todo items,
+     *         or null if the client's copy is still current
+     * @throws ResponseStatusException with a bad request status if a cursor is not valid
     */
     @GetMapping("/filter")
     public ModelAndView filterTodoItems(
-            Authentication authentication,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(value = "completedCheckbox", required = false) Boolean completedCheckbox,
-            @RequestParam(value = "notCompletedCheckbox", required = false) Boolean notCompletedCheckbox
+            @RequestParam(value = "notCompletedCheckbox", required = false) Boolean notCompletedCheckbox,
+            @RequestParam(value = "itemCategory", required = false) String itemCategory,
+            @RequestParam(value = "storeName", required = false) String storeName,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "50") int size,
+            ServletWebRequest request
     ) {
-        ModelAndView modelAndView = new ModelAndView("index");
+        TodoItemCursor afterCursor = cursor(after);
+        TodoItemCursor beforeCursor = cursor(before);
+        if (notModified(request, principal)) {
+            return null;
+        }
 
-        Users authenticatedUser = userRepository.findByUsername(authentication.getName());
+        ModelAndView modelAndView = new ModelAndView("index");
 
         // Convert LocalDate to Instant for comparison
         Instant startDateTime = startDate.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant();
         Instant endDateTime = endDate.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant();
 
-        List<TodoItem> todoItems;
+        Boolean isComplete;
 
         if (completedCheckbox != null && notCompletedCheckbox != null) {
             // Both checkboxes are checked, ignore the checkbox values and retrieve all todoItems
-            todoItems = todoItemService.findByUserAndCreatedAtBetween(authenticatedUser, startDateTime, endDateTime);
+            isComplete = null;
         } else if (completedCheckbox != null && completedCheckbox) {
-            todoItems = todoItemService.findByUserAndIsCompleteTrueAndCreatedAtBetween(authenticatedUser, startDateTime, endDateTime);
+            isComplete = true;
         } else if (notCompletedCheckbox != null && notCompletedCheckbox) {
-            todoItems = todoItemService.findByUserAndIsCompleteFalseAndCreatedAtBetween(authenticatedUser, startDateTime, endDateTime);
+            isComplete = false;
         } else {
-            todoItems = todoItemService.findByUserAndCreatedAtBetween(authenticatedUser, startDateTime, endDateTime);
+            isComplete = null;
+        }
+
+        TodoItemFilter filter = new TodoItemFilter(principal.getId(), startDateTime, endDateTime, isComplete,
+                itemCategory, storeName);
+        TodoItemPage page = todoItemService.findPage(filter, afterCursor, beforeCursor, pageSize(size));
+
+        modelAndView.addObject("name", principal.getUsername());
+        addPage(modelAndView, page);
+        return modelAndView;
+    }
+
+    /**
+     * Searches the todo items of the authenticated user by the words of their description, category and store.
+     * Words match as prefixes, regardless of case and accents, and every word must match.
+     *
+     * @param principal the principal of the authenticated user
+     * @param query     the words to search for
+     * @param size      the maximum number of todo items found
+     * @param request   the current request, used to answer conditional GETs
+     * @return a ModelAndView object with the "index" view containing the todo items found, newest first,
+     *         or null if the client's copy is still current
+     */
+    @GetMapping("/search")
+    public ModelAndView search(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(value = "size", defaultValue = "50") int size,
+            ServletWebRequest request
+    ) {
+        if (notModified(request, principal)) {
+            return null;
         }
 
-        modelAndView.addObject("name", authentication.getName());
-        modelAndView.addObject("todoItems", todoItems);
+        ModelAndView modelAndView = new ModelAndView("index");
+        modelAndView.addObject("name", principal.getUsername());
+        modelAndView.addObject("query", query);
+        modelAndView.addObject("todoItems", todoItemSearchService.search(principal.getId(), query, pageSize(size)));
         return modelAndView;
     }
 
@@ -102,4 +186,70 @@ public class HomeController {
     public String clearFilter() {
         return "redirect:/";
     }
+
+    /**
+     * Answers a conditional GET of a page of the authenticated user from their version, without
+     * loading or rendering anything. The session is part of the ETag, because the page embeds
+     * the session's CSRF token; without a session, in stateless sign-in mode, the token is kept
+     * in a cookie and the cookies are part of the ETag instead.
+     *
+     * @param request   the current request
+     * @param principal the principal of the authenticated user
+     * @return true if the response is a 304 Not Modified
+     */
+    private boolean notModified(ServletWebRequest request, AuthenticatedUser principal) {
+        HttpSession session = request.getRequest().getSession(false);
+        String client = session != null ? session.getId() : String.valueOf(request.getHeader(HttpHeaders.COOKIE));
+        String scope = principal.getId() + "-" + Integer.toHexString(client.hashCode());
+        return ConditionalGet.notModified(request, userVersionService.current(principal.getId()), scope);
+    }
+
+    /**
+     * Decodes a cursor of the query string. Cursors are opaque to clients, so a tampered or truncated one
+     * is a bad request rather than a server error.
+     *
+     * @param token the encoded cursor, may be null
+     * @return the decoded cursor, or null if there is none
+     * @throws ResponseStatusException with a bad request status if the cursor is not valid
+     */
+    private TodoItemCursor cursor(String token) {
+        try {
+            return TodoItemCursor.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Clamps the requested page size to a sane range.
+     *
+     * @param size the requested page size
+     * @return the page size to use
+     */
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Adds a page of todo items and the links to its adjacent pages to the view.
+     * The links keep the current query string, so filters are preserved while paging.
+     *
+     * @param modelAndView the view to add the page to
+     * @param page         the page of todo items
+     */
+    private void addPage(ModelAndView modelAndView, TodoItemPage page) {
+        modelAndView.addObject("todoItems", page.items());
+        if (page.hasNext()) {
+            modelAndView.addObject("nextPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("before")
+                    .replaceQueryParam("after", page.nextCursor().encode())
+                    .toUriString());
+        }
+        if (page.hasPrevious()) {
+            modelAndView.addObject("previousPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after")
+                    .replaceQueryParam("before", page.previousCursor().encode())
+                    .toUriString());
+        }
+    }
 }
@@ -0,0 +1,288 @@
+package com.example.todoapp.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.todoapp.dto.TodoItemFileFormat;
+import com.example.todoapp.dto.TodoItemImportProgress;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemStats;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.services.TodoItemCompletionBuffer;
+import com.example.todoapp.services.TodoItemExportService;
+import com.example.todoapp.services.TodoItemImportService;
+import com.example.todoapp.services.TodoItemService;
+import com.example.todoapp.services.TodoItemStatsService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/todos")
+public class TodoApiController {
+
+    private final TodoItemService todoItemService;
+    private final TodoItemCompletionBuffer completionBuffer;
+    private final TodoItemExportService todoItemExportService;
+    private final TodoItemImportService todoItemImportService;
+    private final TodoItemStatsService todoItemStatsService;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchItems;
+    private final Duration streamTimeout;
+
+    public TodoApiController(TodoItemService todoItemService, TodoItemCompletionBuffer completionBuffer,
+            TodoItemExportService todoItemExportService,
+            TodoItemImportService todoItemImportService, TodoItemStatsService todoItemStatsService,
+            ObjectMapper objectMapper,
+            @Value("${todoapp.batch.max-items:10000}") int maxBatchItems,
+            @Value("${todoapp.batch.stream-timeout:1h}") Duration streamTimeout) {
+        this.todoItemService = todoItemService;
+        this.completionBuffer = completionBuffer;
+        this.todoItemExportService = todoItemExportService;
+        this.todoItemImportService = todoItemImportService;
+        this.todoItemStatsService = todoItemStatsService;
+        this.objectMapper = objectMapper;
+        this.maxBatchItems = maxBatchItems;
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * Retrieves a todo item of the authenticated user.
+     *
+     * @param id        the ID of the todo item
+     * @param principal the principal of the authenticated user
+     * @return a ResponseEntity containing the todo item in the response body,
+     *         or a not found response if the user has no todo item with the given ID
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TodoItemView> findById(@PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return todoItemService.getView(principal.getId(), id)
+                .map(item -> ResponseEntity.ok().body(item))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Creates a todo item of the authenticated user.
+     *
+     * @param request   the todo item to create, without ID
+     * @param principal the principal of the authenticated user
+     * @return a ResponseEntity containing the created todo item in the response body,
+     *         or a bad request response if the todo item is invalid or has an ID
+     */
+    @PostMapping
+    public ResponseEntity<TodoItemView> create(@RequestBody TodoItemRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (request.id() != null || !request.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TodoItemView created = todoItemService.saveAll(principal.getId(), List.of(request)).get(0);
+        return ResponseEntity.created(URI.create("/api/todos/" + created.id())).body(created);
+    }
+
+    /**
+     * Updates a todo item of the authenticated user.
+     *
+     * @param id        the ID of the todo item to update
+     * @param request   the new data of the todo item, its ID is ignored
+     * @param principal the principal of the authenticated user
+     * @return a ResponseEntity containing the updated todo item in the response body,
+     *         a bad request response if the todo item is invalid,
+     *         or a not found response if the user has no todo item with the given ID
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<TodoItemView> update(@PathVariable Long id, @RequestBody TodoItemRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!request.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TodoItemRequest update = new TodoItemRequest(id, request.description(), request.isComplete(),
+                request.itemCategory(), request.quantity(), request.storeName());
+        try {
+            return ResponseEntity.ok().body(todoItemService.saveAll(principal.getId(), List.of(update)).get(0));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Toggles the completion status of a todo item of the authenticated user.
+     * The change is visible at once and written to the database in the background, batched with other toggles.
+     *
+     * @param id        the ID of the todo item to toggle
+     * @param principal the principal of the authenticated user
+     * @return a ResponseEntity containing the todo item with its new status in the response body,
+     *         or a not found response if the user has no todo item with the given ID
+     */
+    @PostMapping("/{id}/toggle")
+    public ResponseEntity<TodoItemView> toggle(@PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            completionBuffer.toggle(principal.getId(), id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.of(todoItemService.getView(principal.getId(), id));
+    }
+
+    /**
+     * Deletes a todo item of the authenticated user.
+     *
+     * @param id        the ID of the todo item to delete
+     * @param principal the principal of the authenticated user
+     * @return a no content response, or a not found response if the user has no todo item with the given ID
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!todoItemService.delete(principal.getId(), id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Creates or updates many todo items of the authenticated user at once.
+     * Items without an ID are created, items with an ID update the existing item.
+     *
+     * @param requests  the todo items to save
+     * @param principal the principal of the authenticated user
+     * @return a ResponseEntity containing the saved todo items in the response body,
+     *         a bad request response if the batch is empty, too large or contains an invalid item,
+     *         or a not found response, with nothing saved, if the user has no todo item with one of the IDs
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<TodoItemView>> saveAll(@RequestBody List<TodoItemRequest> requests,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (requests.isEmpty() || requests.size() > maxBatchItems
+                || !requests.stream().allMatch(TodoItemRequest::isValid)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok().body(todoItemService.saveAll(principal.getId(), requests));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Exports every todo item of the authenticated user as CSV or NDJSON.
+     * The response is streamed as the rows are read, so its size doesn't matter to the server's memory,
+     * and it may take up to {@code todoapp.batch.stream-timeout} instead of the app's async request timeout.
+     *
+     * @param format    the export format, CSV by default
+     * @param principal the principal of the authenticated user
+     * @param response  the response the exported todo items are streamed to, as an attachment
+     * @return the task streaming the export, or null after a bad request response if the format is unknown
+     * @throws IOException if the bad request response can't be sent
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletResponse response) throws IOException {
+        TodoItemFileFormat exportFormat;
+        try {
+            exportFormat = TodoItemFileFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+
+        Long userId = principal.getId();
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("todo-items." + exportFormat.getExtension())
+                .build()
+                .toString());
+        return new WebAsyncTask<>(streamTimeout.toMillis(), () -> {
+            todoItemExportService.export(userId, exportFormat, response.getOutputStream());
+            return null;
+        });
+    }
+
+    /**
+     * Imports todo items for the authenticated user from a CSV or NDJSON request body.
+     * The body is read as a stream and written in chunks; the response is an NDJSON stream
+     * with one progress line per chunk, including the rows rejected in it, and a final summary line.
+     * Like the export, it may take up to {@code todoapp.batch.stream-timeout}.
+     *
+     * @param format    the format of the request body, CSV by default
+     * @param body      the file to import
+     * @param principal the principal of the authenticated user
+     * @param response  the response the import progress is streamed to
+     * @return the task streaming the import progress, or null after a bad request response if the format is unknown
+     * @throws IOException if the bad request response can't be sent
+     */
+    @PostMapping("/import")
+    public WebAsyncTask<Void> importItems(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            InputStream body,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletResponse response) throws IOException {
+        TodoItemFileFormat importFormat;
+        try {
+            importFormat = TodoItemFileFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+
+        Long userId = principal.getId();
+        response.setContentType(TodoItemFileFormat.NDJSON.getMediaType().toString());
+        return new WebAsyncTask<>(streamTimeout.toMillis(), () -> {
+            OutputStream output = response.getOutputStream();
+            todoItemImportService.importItems(userId, importFormat, body, progress -> writeProgress(progress, output));
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves the counts of the authenticated user's todo items by status, category and store,
+     * with their summed quantity. The counts are kept up to date as items are written, so no query runs.
+     *
+     * @param principal the principal of the authenticated user
+     * @return a ResponseEntity containing the statistics in the response body
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TodoItemStats> stats(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok().body(todoItemStatsService.get(principal.getId()));
+    }
+
+    private void writeProgress(TodoItemImportProgress progress, OutputStream output) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(progress));
+            output.write('\n');
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
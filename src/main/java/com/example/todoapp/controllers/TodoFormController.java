@@ -1,15 +1,20 @@
 package com.example.todoapp.controllers;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Objects;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
+import com.example.todoapp.services.TodoItemCompletionBuffer;
 import com.example.todoapp.services.TodoItemService;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.stereotype.Controller;
+import com.example.todoapp.models.AuthenticatedUser;
 import com.example.todoapp.models.TodoItem;
-import com.example.todoapp.models.Users;
 import com.example.todoapp.repositories.UserRepository;
 
 import jakarta.validation.Valid;
@@ -24,6 +29,8 @@ public class TodoFormController {
     private TodoItemService todoItemService;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private TodoItemCompletionBuffer completionBuffer;
 
     /**
      * Displays the form for creating a new TodoItem.
@@ -41,18 +48,17 @@ public class TodoFormController {
      * Validates the todo item, associates it with the authenticated user, and saves it to the database.
      *
      * @param todoItem the todo item object containing the form data
-     * @param result   the binding result object for validation errors
-     * @param model    the model object used to add attributes for the view
+     * @param result    the binding result object for validation errors
+     * @param model     the model object used to add attributes for the view
+     * @param principal the principal of the authenticated user
      * @return a string representing the redirect URL to the home page
      */
     @PostMapping("/todo")
-    public String createTodoItem(@Valid TodoItem todoItem, BindingResult result, Model model) {
+    public String createTodoItem(@Valid TodoItem todoItem, BindingResult result, Model model,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
 
-        // Assuming you have the authenticated user available in the "authentication" object
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Users authenticatedUser = userRepository.findByUsername(authentication.getName());
-
-        todoItem.setUser(authenticatedUser);
+        // Reference the user by the ID carried on the principal, without loading it
+        todoItem.setUser(userRepository.getReferenceById(principal.getId()));
 
         todoItemService.save(todoItem);
         return "redirect:/";
@@ -62,21 +68,21 @@ public class TodoFormController {
      * Deletes a specific todo item by its ID.
      * Verifies if the authenticated user is the owner of the todo item before deleting it.
      *
-     * @param id    the ID of the todo item to be deleted
-     * @param model the model object used to add attributes for the view
+     * @param id        the ID of the todo item to be deleted
+     * @param model     the model object used to add attributes for the view
+     * @param principal the principal of the authenticated user
      * @return a string representing the redirect URL to the home page
      * @throws IllegalArgumentException if the todo item with the given ID is not found or the authenticated user is not the owner
      */
     @GetMapping("/delete/{id}")
-    public String deleteTodoItem(@PathVariable("id") Long id, Model model) {
+    public String deleteTodoItem(@PathVariable("id") Long id, Model model,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         TodoItem todoItem = todoItemService
                 .getById(id)
                 .orElseThrow(() -> new IllegalArgumentException("TodoItem id: " + id + " not found"));
 
         // Check if the authenticated user is the owner of the todoItem
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Users authenticatedUser = userRepository.findByUsername(authentication.getName());
-        if (!Objects.equals(todoItem.getUser(), authenticatedUser)) {
+        if (!Objects.equals(todoItem.getUser().getId(), principal.getId())) {
             throw new IllegalArgumentException("Unauthorized access");
         }
 
@@ -130,4 +136,63 @@ public class TodoFormController {
 
         return "redirect:/";
     }
+
+    /**
+     * Toggles the completion status of a todo item of the authenticated user.
+     * The change is visible at once and written to the database in the background, batched with other toggles.
+     *
+     * @param id        the ID of the todo item to toggle
+     * @param principal the principal of the authenticated user
+     * @return a string representing the redirect URL to the home page
+     * @throws IllegalArgumentException if the authenticated user has no todo item with the given ID
+     */
+    @PostMapping("/todo/{id}/toggle")
+    public String toggleTodoItem(@PathVariable("id") Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        completionBuffer.toggle(principal.getId(), id);
+        return "redirect:/";
+    }
+
+    /**
+     * Marks the selected todo items of the authenticated user as complete, in a single statement.
+     *
+     * @param ids       the IDs of the selected todo items
+     * @param principal the principal of the authenticated user
+     * @return a string representing the redirect URL to the home page
+     */
+    @PostMapping("/todo/bulk-complete")
+    public String completeTodoItems(@RequestParam(value = "ids", required = false) List<Long> ids,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        todoItemService.completeAll(principal.getId(), ids == null ? List.of() : ids);
+        return "redirect:/";
+    }
+
+    /**
+     * Deletes the selected todo items of the authenticated user, in a single statement.
+     *
+     * @param ids       the IDs of the selected todo items
+     * @param principal the principal of the authenticated user
+     * @return a string representing the redirect URL to the home page
+     */
+    @PostMapping("/todo/bulk-delete")
+    public String deleteTodoItems(@RequestParam(value = "ids", required = false) List<Long> ids,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        todoItemService.deleteAll(principal.getId(), ids == null ? List.of() : ids);
+        return "redirect:/";
+    }
+
+    /**
+     * Deletes the completed todo items of the authenticated user created before a date, in a single statement.
+     *
+     * @param before    the date before which completed todo items are deleted (exclusive)
+     * @param principal the principal of the authenticated user
+     * @return a string representing the redirect URL to the home page
+     */
+    @PostMapping("/todo/delete-completed")
+    public String deleteCompletedTodoItems(
+            @RequestParam("before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        Instant beforeDateTime = before.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant();
+        todoItemService.deleteCompletedBefore(principal.getId(), beforeDateTime);
+        return "redirect:/";
+    }
 }
@@ -0,0 +1,139 @@
+package com.example.todoapp.controllers;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.services.TodoItemCompletionBuffer;
+import com.example.todoapp.services.TodoItemService;
+
+/**
+ * Renders single rows of the todo item table, for the index page to patch itself in place after a change
+ * instead of reloading the whole list. Takes the same form fields as {@link TodoFormController},
+ * whose endpoints remain the fallback without JavaScript.
+ */
+@Controller
+@RequestMapping("/fragments/todo")
+public class TodoFragmentController {
+
+    private static final String ROW = "fragments/todo-row :: row";
+    private static final String EDIT_ROW = "fragments/todo-row :: edit-row";
+    private static final String ERROR = "fragments/todo-row :: error";
+
+    private final TodoItemService todoItemService;
+    private final TodoItemCompletionBuffer completionBuffer;
+
+    public TodoFragmentController(TodoItemService todoItemService, TodoItemCompletionBuffer completionBuffer) {
+        this.todoItemService = todoItemService;
+        this.completionBuffer = completionBuffer;
+    }
+
+    /**
+     * Creates a todo item of the authenticated user.
+     *
+     * @param form      the todo item to create
+     * @param principal the principal of the authenticated user
+     * @return a ModelAndView rendering the row of the created todo item,
+     *         or a bad request rendering the validation error
+     */
+    @PostMapping
+    public ModelAndView create(@ModelAttribute TodoItemRequest form,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        TodoItemRequest request = new TodoItemRequest(null, form.description(), form.isComplete(),
+                form.itemCategory(), form.quantity(), form.storeName());
+        if (!request.isValid()) {
+            return error(request.validationError());
+        }
+
+        return row(todoItemService.saveAll(principal.getId(), List.of(request)).get(0));
+    }
+
+    /**
+     * Renders the row of a todo item of the authenticated user, e.g. when an edit is cancelled.
+     *
+     * @param id        the ID of the todo item
+     * @param principal the principal of the authenticated user
+     * @return a ModelAndView rendering the row of the todo item
+     * @throws IllegalArgumentException if the user has no todo item with the given ID
+     */
+    @GetMapping("/{id}")
+    public ModelAndView show(@PathVariable("id") Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return row(view(id, principal));
+    }
+
+    /**
+     * Renders the row of a todo item of the authenticated user as a form editing it.
+     *
+     * @param id        the ID of the todo item
+     * @param principal the principal of the authenticated user
+     * @return a ModelAndView rendering the editable row of the todo item
+     * @throws IllegalArgumentException if the user has no todo item with the given ID
+     */
+    @GetMapping("/{id}/edit")
+    public ModelAndView edit(@PathVariable("id") Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return new ModelAndView(EDIT_ROW).addObject("item", view(id, principal));
+    }
+
+    /**
+     * Updates a todo item of the authenticated user.
+     *
+     * @param id        the ID of the todo item to update
+     * @param form      the new data of the todo item
+     * @param principal the principal of the authenticated user
+     * @return a ModelAndView rendering the row of the updated todo item,
+     *         or a bad request rendering the validation error
+     * @throws IllegalArgumentException if the user has no todo item with the given ID
+     */
+    @PostMapping("/{id}")
+    public ModelAndView update(@PathVariable("id") Long id, @ModelAttribute TodoItemRequest form,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        TodoItemRequest request = new TodoItemRequest(id, form.description(), form.isComplete(),
+                form.itemCategory(), form.quantity(), form.storeName());
+        if (!request.isValid()) {
+            return error(request.validationError());
+        }
+
+        return row(todoItemService.saveAll(principal.getId(), List.of(request)).get(0));
+    }
+
+    /**
+     * Toggles the completion status of a todo item of the authenticated user.
+     * The change is visible at once and written to the database in the background, batched with other toggles.
+     *
+     * @param id        the ID of the todo item to toggle
+     * @param principal the principal of the authenticated user
+     * @return a ModelAndView rendering the row of the todo item with its new status
+     * @throws IllegalArgumentException if the user has no todo item with the given ID
+     */
+    @PostMapping("/{id}/toggle")
+    public ModelAndView toggle(@PathVariable("id") Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        completionBuffer.toggle(principal.getId(), id);
+        return row(view(id, principal));
+    }
+
+    private TodoItemView view(Long id, AuthenticatedUser principal) {
+        return todoItemService.getView(principal.getId(), id)
+                .orElseThrow(() -> new IllegalArgumentException("TodoItem id: " + id + " not found"));
+    }
+
+    private static ModelAndView row(TodoItemView item) {
+        return new ModelAndView(ROW).addObject("item", item);
+    }
+
+    private static ModelAndView error(String message) {
+        ModelAndView modelAndView = new ModelAndView(ERROR).addObject("error", message);
+        modelAndView.setStatus(HttpStatus.BAD_REQUEST);
+        return modelAndView;
+    }
+}
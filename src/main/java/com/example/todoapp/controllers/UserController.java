@@ -1,8 +1,16 @@
 package com.example.todoapp.controllers;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Set;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,31 +18,74 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletResponse;
 
+import com.example.todoapp.dto.UserResponse;
 import com.example.todoapp.models.Users;
 import com.example.todoapp.repositories.UserRepository;
+import com.example.todoapp.services.TodoItemService;
+import com.example.todoapp.services.UserListingService;
 import com.example.todoapp.services.UserServices;
+import com.example.todoapp.services.UserSessionService;
+import com.example.todoapp.services.UserVersionService;
 
 @RestController
 @RequestMapping("/user")
 public class UserController implements UserServices {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final Set<String> SORTABLE = Set.of("id", "name", "username");
+
     private final UserRepository userRepository;
+    private final UserSessionService userSessionService;
+    private final UserVersionService userVersionService;
+    private final TodoItemService todoItemService;
+    private final UserListingService userListingService;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, UserSessionService userSessionService,
+            UserVersionService userVersionService, TodoItemService todoItemService,
+            UserListingService userListingService) {
         this.userRepository = userRepository;
+        this.userSessionService = userSessionService;
+        this.userVersionService = userVersionService;
+        this.todoItemService = todoItemService;
+        this.userListingService = userListingService;
     }
 
     /**
-     * Retrieves all users.
+     * Retrieves one page of users, streamed as JSON as they are read.
+     * Answers a bad request if sorted by anything but ID, name or username, or if the page starts
+     * beyond the {@link Integer#MAX_VALUE}th user.
      *
-     * @return a list of all users
+     * @param pageable         the page to retrieve, e.g. {@code ?page=2&size=100&sort=name,desc}; always ordered
+     *                         by ID last, so pages are stable
+     * @param includeTodoCount whether to include the number of todo items of each user, counted in the same query
+     * @param response         the response to write the page to
+     * @throws IOException if writing the response fails
      */
     @GetMapping
     @Override
-    public List<Users> findAll() {
-        return userRepository.findAll();
+    public void findAll(@PageableDefault(size = 50, sort = "id") Pageable pageable,
+            @RequestParam(value = "includeTodoCount", defaultValue = "false") boolean includeTodoCount,
+            HttpServletResponse response) throws IOException {
+        Sort sort = pageable.getSort();
+        int size = Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+        if (!sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()))
+                || (long) pageable.getPageNumber() * size > Integer.MAX_VALUE) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        userListingService.writePage(PageRequest.of(pageable.getPageNumber(), size, sort), includeTodoCount,
+                response.getOutputStream());
     }
 
 
@@ -47,32 +98,46 @@ public class UserController implements UserServices {
      */
     @PostMapping("/signup")
     @Override
-    public ResponseEntity<Users> createUser(@RequestBody Users user) {
+    public ResponseEntity<UserResponse> createUser(@RequestBody Users user) {
         if (user.getName() == null || user.getName().isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
         Users newUser = userRepository.save(user);
-        return ResponseEntity.status(HttpStatus.CREATED).body(newUser);
+        return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.of(newUser));
     }
 
     /**
      * Retrieves a user by its ID.
      *
-     * @param id the ID of the user to retrieve
+     * Answers 304 Not Modified from the user's version, without loading the user, if the client's copy is current.
+     *
+     * @param id               the ID of the user to retrieve
+     * @param includeTodoCount whether to include the number of todo items of the user, counted in the same query
+     * @param request          the current request, used to answer conditional GETs
      * @return a ResponseEntity containing the retrieved user object in the response body,
-     *         or a not found response if the user with the given ID is not found
+     *         a not found response if the user with the given ID is not found,
+     *         or null if the client's copy is still current
      */
     @GetMapping("/{id}")
     @Override
-    public ResponseEntity<Users> findById(@PathVariable Long id) {
-        return userRepository.findById(id)
+    public ResponseEntity<UserResponse> findById(@PathVariable Long id,
+            @RequestParam(value = "includeTodoCount", defaultValue = "false") boolean includeTodoCount,
+            ServletWebRequest request) {
+        // The version also moves when the user's todo items are written, so it covers the count too
+        String scope = includeTodoCount ? "user-" + id + "-todo-count" : "user-" + id;
+        if (ConditionalGet.notModified(request, userVersionService.current(id), scope)) {
+            return null;
+        }
+
+        return userRepository.findResponseById(id, includeTodoCount)
                 .map(user -> ResponseEntity.ok().body(user))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Updates a user with new data.
+     * Expires the sessions of the user, so their principal no longer carries the previous data.
      *
      * @param id       the ID of the user to update
      * @param bodyUser the user object containing the updated data
@@ -81,19 +146,23 @@ public class UserController implements UserServices {
      */
     @PutMapping("/{id}")
     @Override
-    public ResponseEntity<Users> updateUser(@PathVariable Long id, @RequestBody Users bodyUser) {
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @RequestBody Users bodyUser) {
         return userRepository.findById(id)
                 .map(user -> {
                     user.setName(bodyUser.getName());
                     user.setPassword(bodyUser.getPassword());
                     Users updatedUser = userRepository.save(user);
-                    return ResponseEntity.ok().body(updatedUser);
+                    userSessionService.expireSessions(id);
+                    userVersionService.bump(id);
+                    return ResponseEntity.ok().body(UserResponse.of(updatedUser));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Deletes a user by its ID.
+     * Expires the sessions of the user, so the deleted user is signed out.
+     * The todo items of the user are deleted first with a single statement, in the same transaction.
      *
      * @param id the ID of the user to delete
      * @return a ResponseEntity representing the success or failure of the deletion,
@@ -101,10 +170,14 @@ public class UserController implements UserServices {
      */
     @DeleteMapping("/{id}")
     @Override
+    @Transactional
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         return userRepository.findById(id)
                 .map(user -> {
+                    todoItemService.deleteAllOfUser(id);
                     userRepository.deleteById(id);
+                    userSessionService.expireSessions(id);
+                    userVersionService.bump(id);
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().<Void>build());
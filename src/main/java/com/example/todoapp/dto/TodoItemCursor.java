@@ -0,0 +1,59 @@
+package com.example.todoapp.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Seek position in a user's todo list, made of the {@code (createdAt, id)} pair of an item.
+ * Pages are read with a range condition on this pair instead of an OFFSET, so the cost of
+ * reading a page depends only on its size.
+ *
+ * @param createdAt the creation instant of the item the cursor points to
+ * @param id        the ID of the item the cursor points to, used to break ties on createdAt
+ */
+public record TodoItemCursor(Instant createdAt, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Creates a cursor pointing to the given todo item.
+     *
+     * @param todoItem the todo item the cursor points to
+     * @return a cursor holding the seek key of the item
+     */
+    public static TodoItemCursor of(TodoItemView todoItem) {
+        return new TodoItemCursor(todoItem.createdAt(), todoItem.id());
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param token the encoded cursor, may be null or blank
+     * @return the decoded cursor, or null if the token is null or blank
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static TodoItemCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TodoItemCursor(createdAt, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe token.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + SEPARATOR + createdAt.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.todoapp.dto;
+
+import java.time.Instant;
+
+/**
+ * Criteria used to select the todo items of a user. Every criterion except the user is optional,
+ * a null value means the criterion is not applied.
+ *
+ * @param userId        the ID of the user owning the todo items
+ * @param startDateTime the start of the creation time range (inclusive), or null
+ * @param endDateTime   the end of the creation time range (inclusive), or null
+ * @param isComplete    the completion status of the todo items, or null for any status
+ * @param itemCategory  the category of the todo items, or null for any category
+ * @param storeName     the store of the todo items, or null for any store
+ */
+public record TodoItemFilter(Long userId, Instant startDateTime, Instant endDateTime, Boolean isComplete,
+        String itemCategory, String storeName) {
+
+    /**
+     * Creates a filter selecting every todo item of a user.
+     *
+     * @param userId the ID of the user owning the todo items
+     * @return a filter with no criterion besides the user
+     */
+    public static TodoItemFilter forUser(Long userId) {
+        return new TodoItemFilter(userId, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.todoapp.dto;
+
+/**
+ * A row of an imported file that was rejected.
+ *
+ * @param line    the line of the file on which the row starts
+ * @param message the reason the row was rejected
+ */
+public record TodoItemImportError(long line, String message) {
+}
@@ -0,0 +1,17 @@
+package com.example.todoapp.dto;
+
+import java.util.List;
+
+/**
+ * Progress of an import, reported every chunk size rows read, valid or not, and once at the end.
+ *
+ * @param chunk         the number of chunks written so far
+ * @param imported      the number of rows imported so far
+ * @param rejected      the number of rows rejected so far
+ * @param errors        the first rows rejected since the previous report
+ * @param omittedErrors the number of rows rejected since the previous report left out of the errors
+ * @param done          whether the whole file has been read
+ */
+public record TodoItemImportProgress(int chunk, long imported, long rejected, List<TodoItemImportError> errors,
+        long omittedErrors, boolean done) {
+}
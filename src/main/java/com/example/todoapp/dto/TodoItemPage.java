@@ -0,0 +1,31 @@
+package com.example.todoapp.dto;
+
+import java.util.List;
+
+/**
+ * A page of todo item projections read with keyset pagination.
+ *
+ * @param items          the items of the page, ordered by createdAt and id
+ * @param nextCursor     the cursor to read the following page, or null if this is the last page
+ * @param previousCursor the cursor to read the preceding page, or null if this is the first page
+ */
+public record TodoItemPage(List<TodoItemView> items, TodoItemCursor nextCursor, TodoItemCursor previousCursor) {
+
+    /**
+     * Checks whether there is a page after this one.
+     *
+     * @return true if a following page exists
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Checks whether there is a page before this one.
+     *
+     * @return true if a preceding page exists
+     */
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.todoapp.dto;
+
+import com.example.todoapp.models.TodoItem;
+
+/**
+ * Todo item sent to the API. Without an ID it creates a new item, with an ID it updates
+ * the existing item of the authenticated user.
+ *
+ * @param id           the ID of the todo item to update, or null to create one
+ * @param description  the description of the todo item, required
+ * @param isComplete   the completion status of the todo item, false if null
+ * @param itemCategory the category of the todo item
+ * @param quantity     the quantity of the todo item
+ * @param storeName    the store of the todo item
+ */
+public record TodoItemRequest(Long id, String description, Boolean isComplete, String itemCategory, Integer quantity,
+        String storeName) {
+
+    /**
+     * Checks the constraints declared on the todo item entity.
+     *
+     * @return true if the request can be saved
+     */
+    public boolean isValid() {
+        return validationError() == null;
+    }
+
+    /**
+     * Describes the first constraint declared on the todo item entity that the request breaks.
+     *
+     * @return the validation message, or null if the request can be saved
+     */
+    public String validationError() {
+        if (description == null || description.isBlank()) {
+            return "Description is required";
+        }
+        if (tooLong(description)) {
+            return "Description is too long";
+        }
+        if (tooLong(itemCategory)) {
+            return "Category is too long";
+        }
+        if (tooLong(storeName)) {
+            return "Store name is too long";
+        }
+        return null;
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > TodoItem.TEXT_LENGTH;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.todoapp.dto;
+
+import java.time.Instant;
+
+/**
+ * The searchable columns of a todo item, read to build the search index.
+ *
+ * @param id           the ID of the todo item
+ * @param userId       the ID of the user owning the todo item
+ * @param description  the description of the todo item
+ * @param itemCategory the category of the todo item
+ * @param storeName    the store of the todo item
+ * @param createdAt    the creation time of the todo item, which search results are ranked by
+ */
+public record TodoItemSearchDocument(Long id, Long userId, String description, String itemCategory,
+        String storeName, Instant createdAt) {
+}
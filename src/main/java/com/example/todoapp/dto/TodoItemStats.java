@@ -0,0 +1,14 @@
+package com.example.todoapp.dto;
+
+import java.util.List;
+
+/**
+ * Summary of the todo items of a user.
+ *
+ * @param complete   the number of complete todo items
+ * @param incomplete the number of incomplete todo items
+ * @param quantity   the summed quantity of all todo items
+ * @param groups     the counts by status, category and store
+ */
+public record TodoItemStats(long complete, long incomplete, long quantity, List<TodoItemStatsGroup> groups) {
+}
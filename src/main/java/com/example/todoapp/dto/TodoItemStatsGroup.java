@@ -0,0 +1,14 @@
+package com.example.todoapp.dto;
+
+/**
+ * Number and summed quantity of the todo items of a user sharing a status, category and store.
+ *
+ * @param isComplete   the completion status of the todo items
+ * @param itemCategory the category of the todo items, or null
+ * @param storeName    the store of the todo items, or null
+ * @param count        the number of todo items
+ * @param quantity     the summed quantity of the todo items, missing quantities count as zero
+ */
+public record TodoItemStatsGroup(Boolean isComplete, String itemCategory, String storeName, Long count,
+        Long quantity) {
+}
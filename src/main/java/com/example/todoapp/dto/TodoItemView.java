@@ -0,0 +1,42 @@
+package com.example.todoapp.dto;
+
+import java.time.Instant;
+
+import com.example.todoapp.models.TodoItem;
+
+/**
+ * Read-only projection of a todo item holding the columns displayed in the list view.
+ * Selecting it instead of the entity keeps the rows narrow and out of the persistence context.
+ *
+ * @param id           the ID of the todo item
+ * @param description  the description of the todo item
+ * @param isComplete   the completion status of the todo item
+ * @param itemCategory the category of the todo item
+ * @param quantity     the quantity of the todo item
+ * @param storeName    the store of the todo item
+ * @param createdAt    the creation date of the todo item
+ */
+public record TodoItemView(Long id, String description, Boolean isComplete, String itemCategory, Integer quantity,
+        String storeName, Instant createdAt) {
+
+    /**
+     * Creates the projection of a todo item entity.
+     *
+     * @param todoItem the todo item
+     * @return the projection of the todo item
+     */
+    public static TodoItemView of(TodoItem todoItem) {
+        return new TodoItemView(todoItem.getId(), todoItem.getDescription(), todoItem.getIsComplete(),
+                todoItem.getItemCategory(), todoItem.getQuantity(), todoItem.getStoreName(), todoItem.getCreatedAt());
+    }
+
+    /**
+     * Copies the projection with another completion status.
+     *
+     * @param complete the completion status of the copy
+     * @return the copy
+     */
+    public TodoItemView withIsComplete(Boolean complete) {
+        return new TodoItemView(id, description, complete, itemCategory, quantity, storeName, createdAt);
+    }
+}
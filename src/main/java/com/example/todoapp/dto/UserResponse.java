@@ -0,0 +1,37 @@
+package com.example.todoapp.dto;
+
+import com.example.todoapp.models.Users;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * User as returned by the API: never the password, nor the todo items themselves.
+ *
+ * @param id        the ID of the user
+ * @param name      the name of the user
+ * @param username  the username of the user
+ * @param todoCount the number of todo items of the user, or null (and left out of the JSON) if not requested
+ */
+public record UserResponse(Long id, String name, String username,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long todoCount) {
+
+    /**
+     * Creates a response without the todo item count.
+     *
+     * @param id       the ID of the user
+     * @param name     the name of the user
+     * @param username the username of the user
+     */
+    public UserResponse(Long id, String name, String username) {
+        this(id, name, username, null);
+    }
+
+    /**
+     * Creates the response of a user entity, without the todo item count.
+     *
+     * @param user the user
+     * @return the response of the user
+     */
+    public static UserResponse of(Users user) {
+        return new UserResponse(user.getId(), user.getName(), user.getUsername());
+    }
+}
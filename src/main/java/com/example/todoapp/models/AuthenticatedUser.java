@@ -0,0 +1,32 @@
+package com.example.todoapp.models;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Principal of an authenticated user. Carries the user ID so that request handlers can scope
+ * their queries to the user without looking it up by username on every request.
+ */
+public class AuthenticatedUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, String password,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    /**
+     * Retrieves the ID of the authenticated user.
+     *
+     * @return the ID of the user
+     */
+    public Long getId() {
+        return id;
+    }
+}
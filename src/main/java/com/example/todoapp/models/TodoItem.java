@@ -2,26 +2,45 @@ package com.example.todoapp.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.io.Serializable;
 import java.time.Instant;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 
 @Getter
 @Setter
 @Entity
-@Table(name = "todo_items")
+// Only cached when the second-level cache is enabled, see SecondLevelCacheConfig
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "todo_items", indexes = {
+        // Composite indexes serving the filter and keyset pagination queries: user, optional status, then seek key
+        @Index(name = "idx_todo_items_user_created", columnList = "userId, createdAt, id"),
+        @Index(name = "idx_todo_items_user_complete_created", columnList = "userId, isComplete, createdAt, id")
+})
 public class TodoItem implements Serializable {
 
+    public static final String ID_SEQUENCE = "todo_items_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final int TEXT_LENGTH = 255;
+
+    // Pooled sequence (a table on MySQL) instead of IDENTITY, so Hibernate can batch inserts;
+    // moved past the IDs stored before it existed by TodoItemSequenceInitializer
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Description is required")
+    @Size(max = TEXT_LENGTH, message = "Description is too long")
+    @Column(length = TEXT_LENGTH)
     private String description;
 
     private Boolean isComplete = false;
@@ -30,14 +49,18 @@ public class TodoItem implements Serializable {
 
     private Instant updatedAt;
 
+    @Size(max = TEXT_LENGTH, message = "Category is too long")
+    @Column(length = TEXT_LENGTH)
     private String itemCategory;
 
     private Integer quantity;
 
+    @Size(max = TEXT_LENGTH, message = "Store name is too long")
+    @Column(length = TEXT_LENGTH)
     private String storeName;
 
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "userId", columnDefinition = "bigint", referencedColumnName = "id")
     @JsonIgnoreProperties("todoitems")
     private Users user;
@@ -0,0 +1,43 @@
+package com.example.todoapp.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Revocation of stateless sign-in cookies, shared by every node through the database.
+ * Either revokes one token, or every token of a user issued before a date. Rows are only
+ * kept until the tokens they revoke would have expired anyway, so the list stays short.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_expires", columnList = "expiresAt"),
+        // Each refresh only reads the revocations made since the previous one
+        @Index(name = "idx_token_revocations_revoked", columnList = "revokedAt") })
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    // The ID of the revoked token, or null to revoke every token of the user issued before issuedBefore
+    private String tokenId;
+
+    private Long userId;
+
+    private Instant issuedBefore;
+
+    private Instant expiresAt;
+
+    // When the revocation was made, by the clock of the node that made it
+    private Instant revokedAt;
+}
@@ -0,0 +1,31 @@
+package com.example.todoapp.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Version of a user's data shared by every node through the database, when
+ * {@code todoapp.shared-versions.enabled} is set. Mapped so that the table is created with the schema;
+ * it is read and written with plain JDBC by {@link com.example.todoapp.services.UserVersionService},
+ * in the transactions of the writes themselves.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "user_versions")
+public class UserVersion {
+
+    @Id
+    private Long userId;
+
+    // The number of writes of the user's data
+    private long counter;
+
+    // The time of the last write, to the second
+    private Instant modifiedAt;
+}
@@ -16,11 +16,17 @@ import java.util.List;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 
 @Getter
 @Setter
 @Entity
+// Only cached when the second-level cache is enabled, see SecondLevelCacheConfig
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Users implements UserDetails {
 
     @Id
@@ -34,6 +40,8 @@ public class Users implements UserDetails {
     private String password;
     private String username;
     
+    // Never serialized: loading it would cost a query per user, and its items point back to the user
+    @JsonIgnore
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<TodoItem> todoItems;
 
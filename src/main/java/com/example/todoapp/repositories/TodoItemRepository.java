@@ -1,15 +1,33 @@
 package com.example.todoapp.repositories;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.todoapp.dto.TodoItemSearchDocument;
+import com.example.todoapp.dto.TodoItemStatsGroup;
+import com.example.todoapp.dto.TodoItemView;
 import com.example.todoapp.models.TodoItem;
 import com.example.todoapp.models.Users;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface TodoItemRepository extends JpaRepository<TodoItem, Long> {
+public interface TodoItemRepository extends JpaRepository<TodoItem, Long>, JpaSpecificationExecutor<TodoItem>,
+        TodoItemRepositoryCustom {
 
     /**
      * Retrieves a TodoItem by its ID.
@@ -25,45 +43,141 @@ public interface TodoItemRepository extends JpaRepository<TodoItem, Long> {
      * @return a list of TodoItems belonging to the user
      */
     List<TodoItem> findByUser(Users user);
+
     /**
-     * Retrieves a list of TodoItems associated with the specified user and created within the given time range.
+     * Marks the specified TodoItems of a user as complete, in a single statement.
+     * TodoItems of other users among the IDs are left untouched.
      *
-     * @param user       the user associated with the TodoItems
-     * @param startDate  the start date of the time range (inclusive)
-     * @param endDate    the end date of the time range (inclusive)
-     * @return a list of TodoItems belonging to the user and created within the time range
+     * @param userId    the ID of the user owning the TodoItems
+     * @param ids       the IDs of the TodoItems to complete
+     * @param updatedAt the update date to set on the TodoItems
+     * @return the number of TodoItems updated
      */
-    List<TodoItem> findByUserAndCreatedAtBetween(Users user, Instant startDate, Instant endDate);
+    @Modifying
+    @Query("update TodoItem t set t.isComplete = true, t.updatedAt = :updatedAt"
+            + " where t.user.id = :userId and t.id in :ids")
+    int completeByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+            @Param("updatedAt") Instant updatedAt);
+
     /**
-     * Retrieves a list of TodoItems associated with the specified user, with the given completion status,
-     * and created within the given time range.
+     * Retrieves which of the specified TodoItems belong to a user, without loading the entities.
      *
-     * @param user            the user associated with the TodoItems
-     * @param isComplete      the completion status of the TodoItems
-     * @param startDateTime   the start date and time of the time range (inclusive)
-     * @param endDateTime     the end date and time of the time range (inclusive)
-     * @return a list of TodoItems belonging to the user, matching the completion status, and created within the time range
+     * @param userId the ID of the user
+     * @param ids    the IDs of the TodoItems
+     * @return the IDs among them of the user's TodoItems
      */
-    List<TodoItem> findByUserAndIsCompleteAndCreatedAtBetween(Users user, boolean isComplete, Instant startDateTime, Instant endDateTime);
+    @Query("select t.id from TodoItem t where t.user.id = :userId and t.id in :ids")
+    Set<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the completion status of a TodoItem of a user, without loading the entity.
+     *
+     * @param id     the ID of the TodoItem
+     * @param userId the ID of the user owning the TodoItem
+     * @return an Optional containing the completion status, or empty if the user has no such TodoItem
+     */
+    @Query("select t.isComplete from TodoItem t where t.id = :id and t.user.id = :userId")
+    Optional<Boolean> findCompletionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Retrieves the specified TodoItems and locks their rows until the transaction ends,
+     * so writes of other transactions to them wait for it.
+     *
+     * @param ids the IDs of the TodoItems to lock
+     * @return the TodoItems found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TodoItem t where t.id in :ids")
+    List<TodoItem> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the specified TodoItems of a user, in a single statement.
+     * TodoItems of other users among the IDs are left untouched.
+     *
+     * @param userId the ID of the user owning the TodoItems
+     * @param ids    the IDs of the TodoItems to delete
+     * @return the number of TodoItems deleted
+     */
+    @Modifying
+    @Query("delete from TodoItem t where t.user.id = :userId and t.id in :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes every TodoItem of a user, in a single statement.
+     *
+     * @param userId the ID of the user owning the TodoItems
+     * @return the number of TodoItems deleted
+     */
+    @Modifying
+    @Query("delete from TodoItem t where t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Deletes the completed TodoItems of a user created before a date, in a single statement.
+     *
+     * @param userId the ID of the user owning the TodoItems
+     * @param before the date before which completed TodoItems are deleted (exclusive)
+     * @return the number of TodoItems deleted
+     */
+    @Modifying
+    @Query("delete from TodoItem t where t.user.id = :userId and t.isComplete = true and t.createdAt < :before")
+    int deleteCompletedByUserIdAndCreatedAtBefore(@Param("userId") Long userId, @Param("before") Instant before);
+
+    /**
+     * Streams the list view projections of every TodoItem of a user, ordered by creation date and ID.
+     * Rows are fetched from the database in blocks and no entity is loaded, so memory stays flat
+     * however many TodoItems the user has. The stream must be consumed inside a transaction and closed.
+     *
+     * @param userId the ID of the user owning the TodoItems
+     * @return a stream of the projections of the user's TodoItems
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.todoapp.dto.TodoItemView(t.id, t.description, t.isComplete, t.itemCategory,"
+            + " t.quantity, t.storeName, t.createdAt)"
+            + " from TodoItem t where t.user.id = :userId order by t.createdAt asc, t.id asc")
+    Stream<TodoItemView> streamViewsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Counts the TodoItems of a user and sums their quantity by status, category and store.
+     * Only used to (re)build the statistics of a user, which are then maintained incrementally.
+     *
+     * @param userId the ID of the user
+     * @return the counts by status, category and store
+     */
+    @Query("select new com.example.todoapp.dto.TodoItemStatsGroup(t.isComplete, t.itemCategory, t.storeName,"
+            + " count(t), coalesce(sum(t.quantity), 0L))"
+            + " from TodoItem t where t.user.id = :userId group by t.isComplete, t.itemCategory, t.storeName")
+    List<TodoItemStatsGroup> countGroupsByUserId(@Param("userId") Long userId);
+
     /**
-     * Retrieves a list of TodoItems associated with the specified user, with a false completion status,
-     * and created within the given time range.
+     * Streams the searchable columns of every TodoItem, to build the search index.
+     * Must be called within a transaction and the stream must be closed after use.
      *
-     * @param user            the user associated with the TodoItems
-     * @param startDateTime   the start date and time of the time range (inclusive)
-     * @param endDateTime     the end date and time of the time range (inclusive)
-     * @return a list of TodoItems belonging to the user, with a null completion status, and created within the time range
+     * @return a stream of the searchable columns of all TodoItems
      */
-    List<TodoItem> findByUserAndIsCompleteFalseAndCreatedAtBetween(Users user, Instant startDateTime, Instant endDateTime);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.todoapp.dto.TodoItemSearchDocument(t.id, t.user.id, t.description,"
+            + " t.itemCategory, t.storeName, t.createdAt) from TodoItem t")
+    Stream<TodoItemSearchDocument> streamSearchDocuments();
 
     /**
-     * Retorna uma lista de TodoItems associados a um usuário específico, com status de conclusão definido como verdadeiro,
-     * e criados dentro de um intervalo de tempo especificado.
+     * Streams the searchable columns of the TodoItems of a user, to rebuild their part of the search index.
+     * Must be called within a transaction and the stream must be closed after use.
      *
-     * @param user           O usuário associado aos TodoItems
-     * @param startDateTime  A data e hora de início do intervalo
-     * @param endDateTime    A data e hora de término do intervalo
-     * @return Uma lista de TodoItems associados ao usuário, com status de conclusão verdadeiro e criados dentro do intervalo especificado.
+     * @param userId the ID of the user owning the TodoItems
+     * @return a stream of the searchable columns of the user's TodoItems
      */
-    public List<TodoItem> findByUserAndIsCompleteTrueAndCreatedAtBetween(Users user, Instant startDateTime, Instant endDateTime);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.todoapp.dto.TodoItemSearchDocument(t.id, t.user.id, t.description,"
+            + " t.itemCategory, t.storeName, t.createdAt) from TodoItem t where t.user.id = :userId")
+    Stream<TodoItemSearchDocument> streamSearchDocumentsByUserId(@Param("userId") Long userId);
 }
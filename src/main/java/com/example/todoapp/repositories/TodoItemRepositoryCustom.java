@@ -0,0 +1,23 @@
+package com.example.todoapp.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.TodoItem;
+
+public interface TodoItemRepositoryCustom {
+
+    /**
+     * Retrieves the list view projection of the TodoItems matching a specification.
+     * Only the displayed columns are selected and no entity is loaded.
+     *
+     * @param specification the criteria the TodoItems must match
+     * @param sort          the order of the results
+     * @param limit         the maximum number of results
+     * @return the projections of the matching TodoItems
+     */
+    List<TodoItemView> findViews(Specification<TodoItem> specification, Sort sort, int limit);
+}
@@ -0,0 +1,44 @@
+package com.example.todoapp.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.TodoItem;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+class TodoItemRepositoryCustomImpl implements TodoItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoItemView> findViews(Specification<TodoItem> specification, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoItemView> query = cb.createQuery(TodoItemView.class);
+        Root<TodoItem> root = query.from(TodoItem.class);
+
+        query.select(cb.construct(TodoItemView.class,
+                root.get("id"),
+                root.get("description"),
+                root.get("isComplete"),
+                root.get("itemCategory"),
+                root.get("quantity"),
+                root.get("storeName"),
+                root.get("createdAt")));
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
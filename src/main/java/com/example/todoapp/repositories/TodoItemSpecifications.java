@@ -0,0 +1,145 @@
+package com.example.todoapp.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.todoapp.dto.TodoItemCursor;
+import com.example.todoapp.dto.TodoItemFilter;
+import com.example.todoapp.models.TodoItem;
+
+/**
+ * Composable query criteria for {@link TodoItem}. The criteria are shaped to match the composite
+ * indexes declared on the entity: the user first, then the completion status, then the creation date.
+ */
+public final class TodoItemSpecifications {
+
+    /**
+     * The seek order of todo items, matching the trailing columns of the composite indexes.
+     */
+    public static final Sort SEEK_ORDER = Sort.by(Sort.Direction.ASC, "createdAt", "id");
+
+    private TodoItemSpecifications() {
+    }
+
+    /**
+     * Builds the specification matching every criterion of a filter.
+     *
+     * @param filter the filter to translate
+     * @return a specification matching the todo items selected by the filter
+     */
+    public static Specification<TodoItem> matching(TodoItemFilter filter) {
+        return Specification.where(belongsTo(filter.userId()))
+                .and(hasCompletion(filter.isComplete()))
+                .and(createdBetween(filter.startDateTime(), filter.endDateTime()))
+                .and(inCategory(filter.itemCategory()))
+                .and(atStore(filter.storeName()));
+    }
+
+    /**
+     * Matches the todo items owned by a user.
+     *
+     * @param userId the ID of the user
+     * @return the specification
+     */
+    public static Specification<TodoItem> belongsTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /**
+     * Matches the todo items with one of the given IDs.
+     *
+     * @param ids the IDs of the todo items
+     * @return the specification
+     */
+    public static Specification<TodoItem> hasIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Matches the todo items with a completion status.
+     *
+     * @param isComplete the completion status, or null to match any status
+     * @return the specification, or null if no status is given
+     */
+    public static Specification<TodoItem> hasCompletion(Boolean isComplete) {
+        if (isComplete == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("isComplete"), isComplete);
+    }
+
+    /**
+     * Matches the todo items created within a time range. Either bound may be null to leave the range open.
+     *
+     * @param startDateTime the start of the range (inclusive), or null
+     * @param endDateTime   the end of the range (inclusive), or null
+     * @return the specification, or null if both bounds are null
+     */
+    public static Specification<TodoItem> createdBetween(Instant startDateTime, Instant endDateTime) {
+        if (startDateTime == null && endDateTime == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (startDateTime == null) {
+                return cb.lessThanOrEqualTo(root.get("createdAt"), endDateTime);
+            }
+            if (endDateTime == null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), startDateTime);
+            }
+            return cb.between(root.get("createdAt"), startDateTime, endDateTime);
+        };
+    }
+
+    /**
+     * Matches the todo items of a category.
+     *
+     * @param itemCategory the category, or null to match any category
+     * @return the specification, or null if no category is given
+     */
+    public static Specification<TodoItem> inCategory(String itemCategory) {
+        if (itemCategory == null || itemCategory.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("itemCategory"), itemCategory);
+    }
+
+    /**
+     * Matches the todo items of a store.
+     *
+     * @param storeName the store, or null to match any store
+     * @return the specification, or null if no store is given
+     */
+    public static Specification<TodoItem> atStore(String storeName) {
+        if (storeName == null || storeName.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("storeName"), storeName);
+    }
+
+    /**
+     * Matches the todo items following a cursor in {@link #SEEK_ORDER}.
+     *
+     * @param cursor the cursor
+     * @return the specification
+     */
+    public static Specification<TodoItem> after(TodoItemCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("createdAt"), cursor.createdAt()),
+                cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()), cb.greaterThan(root.get("id"), cursor.id())));
+    }
+
+    /**
+     * Matches the todo items preceding a cursor in {@link #SEEK_ORDER}.
+     *
+     * @param cursor the cursor
+     * @return the specification
+     */
+    public static Specification<TodoItem> before(TodoItemCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()), cb.lessThan(root.get("id"), cursor.id())));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.todoapp.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.todoapp.models.TokenRevocation;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    /**
+     * Retrieves the revocations still in effect.
+     *
+     * @param now the current date
+     * @return the revocations expiring after the current date
+     */
+    List<TokenRevocation> findByExpiresAtAfter(Instant now);
+
+    /**
+     * Retrieves the revocations made after a date.
+     *
+     * @param since the date after which the revocations were made
+     * @return the revocations made after the date, expired or not
+     */
+    List<TokenRevocation> findByRevokedAtAfter(Instant since);
+
+    /**
+     * Deletes the revocations whose tokens have all expired, in a single statement.
+     *
+     * @param now the current date
+     * @return the number of revocations deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from TokenRevocation r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,33 @@
+package com.example.todoapp.repositories;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.todoapp.dto.UserResponse;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Streams the API responses of a range of users, without loading any entity. With the todo item counts,
+     * the todo items of each user in the range, and only those, are counted by a subquery of the same query.
+     * Must be consumed within a transaction, and closed.
+     *
+     * @param withTodoCounts whether to count the todo items of each user
+     * @param sort           the order of the users, by ID, name or username
+     * @param offset         the number of users to skip, at most {@link Integer#MAX_VALUE}
+     * @param limit          the maximum number of users
+     * @return the responses of the users, in order
+     */
+    Stream<UserResponse> streamResponses(boolean withTodoCounts, Sort sort, long offset, int limit);
+
+    /**
+     * Retrieves the API response of a user, without loading the entity.
+     *
+     * @param id            the ID of the user
+     * @param withTodoCount whether to count the todo items of the user
+     * @return the response of the user, or empty if not found
+     */
+    Optional<UserResponse> findResponseById(Long id, boolean withTodoCount);
+}
@@ -0,0 +1,65 @@
+package com.example.todoapp.repositories;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.example.todoapp.dto.UserResponse;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<UserResponse> streamResponses(boolean withTodoCounts, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<Users> root = select(query, cb, withTodoCounts);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+    }
+
+    @Override
+    public Optional<UserResponse> findResponseById(Long id, boolean withTodoCount) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<Users> root = select(query, cb, withTodoCount);
+        query.where(cb.equal(root.get("id"), id));
+
+        return entityManager.createQuery(query).getResultStream().findFirst();
+    }
+
+    private static Root<Users> select(CriteriaQuery<UserResponse> query, CriteriaBuilder cb, boolean withTodoCounts) {
+        Root<Users> root = query.from(Users.class);
+        if (withTodoCounts) {
+            // Correlated, so only the users selected are counted, each from the todo items' user index,
+            // rather than grouping every todo item of every user before the page is cut
+            Subquery<Long> todoCount = query.subquery(Long.class);
+            Root<TodoItem> todoItem = todoCount.from(TodoItem.class);
+            todoCount.select(cb.count(todoItem)).where(cb.equal(todoItem.get("user"), root));
+            query.select(cb.construct(UserResponse.class,
+                    root.get("id"), root.get("name"), root.get("username"), todoCount));
+        } else {
+            query.select(cb.construct(UserResponse.class, root.get("id"), root.get("name"), root.get("username")));
+        }
+        return root;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.todoapp.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.models.TokenRevocation;
+import com.example.todoapp.repositories.TokenRevocationRepository;
+
+/**
+ * Issues and verifies the signed cookie of the stateless sign-in mode, which replaces the session:
+ * any node can authenticate a request from the cookie alone, without a session or a database lookup.
+ * Enabled with {@code todoapp.stateless-auth.enabled=true}, see SecurityConfig.
+ *
+ * <p>The cookie holds {@code keyId.payload.signature}, where the payload carries the user ID, username
+ * and authorities, when the token was issued and when it expires, and a random token ID; the signature is
+ * an HMAC-SHA256 of the key ID and payload. Keys are configured as {@code id:base64-secret} pairs in
+ * {@code todoapp.stateless-auth.keys}: the first one signs, all of them verify, so keys are rotated by
+ * adding the new key first and dropping the old one once the tokens it signed have expired.
+ *
+ * <p>Signing out revokes the token, and changing or deleting a user revokes all of their tokens. Revocations
+ * are stored in the database; every node loads those in effect at its first refresh, then every
+ * {@code todoapp.stateless-auth.revocation-refresh} reads the ones made since, so a revocation made on another
+ * node takes effect within that delay. Every {@code todoapp.stateless-auth.revocation-cleanup}, they are deleted
+ * once the tokens they revoke have expired.
+ */
+@Service
+@ConditionalOnProperty(name = "todoapp.stateless-auth.enabled", havingValue = "true")
+public class AuthCookieService {
+
+    /**
+     * The name of the cookie carrying the token.
+     */
+    public static final String COOKIE = "TODOAPP_AUTH";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    // Read again by the next refresh, so revocations committing late, or dated by a node whose clock lags
+    // behind, are still picked up
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final String signingKeyId;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    // Revoked token IDs and, per user, the date before which every token is revoked; both by expiry
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Revocation> revokedUsers = new ConcurrentHashMap<>();
+    // The date after which the revocations not read yet were made, or null before the first refresh
+    private volatile Instant refreshedSince;
+
+    private record Revocation(Instant issuedBefore, Instant expiresAt) {
+    }
+
+    private record Token(Long userId, Instant issuedAt, Instant expiresAt, String tokenId,
+            List<GrantedAuthority> authorities, String username) {
+    }
+
+    public AuthCookieService(TokenRevocationRepository tokenRevocationRepository,
+            @Value("${todoapp.stateless-auth.keys:}") String keys,
+            @Value("${todoapp.stateless-auth.ttl:8h}") Duration ttl) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.ttl = ttl;
+        for (String key : StringUtils.commaDelimitedListToStringArray(keys)) {
+            String[] idAndSecret = key.trim().split(":", 2);
+            if (idAndSecret.length != 2 || idAndSecret[0].isEmpty() || idAndSecret[0].contains(".")) {
+                throw new IllegalStateException("Stateless sign-in keys must be id:base64-secret pairs, without dots in the id");
+            }
+            byte[] secret = Base64.getDecoder().decode(idAndSecret[1]);
+            if (secret.length < 32) {
+                throw new IllegalStateException("Stateless sign-in key " + idAndSecret[0] + " must have at least 256 bits");
+            }
+            this.keys.put(idAndSecret[0], new SecretKeySpec(secret, ALGORITHM));
+        }
+        if (this.keys.isEmpty()) {
+            throw new IllegalStateException("Stateless sign-in needs at least one key in todoapp.stateless-auth.keys");
+        }
+        this.signingKeyId = this.keys.keySet().iterator().next();
+    }
+
+    /**
+     * Issues a cookie signing a user in, signed with the current key.
+     *
+     * @param user   the principal of the user signing in
+     * @param secure whether the cookie may only be sent over HTTPS
+     * @return the cookie to set on the response
+     */
+    public ResponseCookie issue(AuthenticatedUser user, boolean secure) {
+        Instant now = Instant.now();
+        byte[] tokenId = new byte[12];
+        random.nextBytes(tokenId);
+        String payload = String.join("|", String.valueOf(user.getId()), String.valueOf(now.toEpochMilli()),
+                String.valueOf(now.plus(ttl).getEpochSecond()), ENCODER.encodeToString(tokenId),
+                String.join(",", AuthorityUtils.authorityListToSet(user.getAuthorities())), user.getUsername());
+        String signed = signingKeyId + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return cookie(signed + "." + ENCODER.encodeToString(sign(keys.get(signingKeyId), signed)), ttl, secure);
+    }
+
+    /**
+     * Authenticates a request from its cookie, from the cookie alone.
+     *
+     * @param value the value of the cookie
+     * @return the principal of the signed in user, or empty if the token is malformed, signed with an unknown key,
+     *         tampered with, expired or revoked
+     */
+    public Optional<AuthenticatedUser> authenticate(String value) {
+        return verify(value).map(token -> new AuthenticatedUser(token.userId(), token.username(), "", token.authorities()));
+    }
+
+    /**
+     * Revokes the token of a cookie, when its user signs out.
+     *
+     * @param value the value of the cookie
+     */
+    @Transactional
+    public void revoke(String value) {
+        verify(value).ifPresent(token -> {
+            TokenRevocation revocation = new TokenRevocation();
+            revocation.setTokenId(token.tokenId());
+            revocation.setUserId(token.userId());
+            revocation.setExpiresAt(token.expiresAt());
+            revocation.setRevokedAt(Instant.now());
+            tokenRevocationRepository.save(revocation);
+            revokedTokens.put(token.tokenId(), token.expiresAt());
+        });
+    }
+
+    /**
+     * Revokes every token issued to a user so far, e.g. when the user changes or is deleted.
+     *
+     * @param userId the ID of the user
+     */
+    @Transactional
+    public void revokeUser(Long userId) {
+        Instant now = Instant.now();
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setIssuedBefore(now);
+        revocation.setExpiresAt(now.plus(ttl));
+        revocation.setRevokedAt(now);
+        tokenRevocationRepository.save(revocation);
+        addUserRevocation(userId, new Revocation(now, revocation.getExpiresAt()));
+    }
+
+    /**
+     * Builds a cookie clearing the sign-in cookie.
+     *
+     * @param secure whether the cookie may only be sent over HTTPS
+     * @return the cookie to set on the response
+     */
+    public ResponseCookie clear(boolean secure) {
+        return cookie("", Duration.ZERO, secure);
+    }
+
+    /**
+     * Reads the revocations made by every node since the previous refresh, or all those in effect
+     * at the first one, and forgets those whose tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${todoapp.stateless-auth.revocation-refresh:PT5S}")
+    @Transactional(readOnly = true)
+    public void refreshRevocations() {
+        Instant now = Instant.now();
+        List<TokenRevocation> revocations = refreshedSince == null
+                ? tokenRevocationRepository.findByExpiresAtAfter(now)
+                : tokenRevocationRepository.findByRevokedAtAfter(refreshedSince);
+        refreshedSince = now.minus(REFRESH_OVERLAP);
+        for (TokenRevocation revocation : revocations) {
+            if (revocation.getTokenId() != null) {
+                revokedTokens.put(revocation.getTokenId(), revocation.getExpiresAt());
+            } else {
+                addUserRevocation(revocation.getUserId(), new Revocation(revocation.getIssuedBefore(), revocation.getExpiresAt()));
+            }
+        }
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedUsers.values().removeIf(revocation -> !revocation.expiresAt().isAfter(now));
+    }
+
+    /**
+     * Deletes the revocations whose tokens have all expired. Refreshes never read them again, so this
+     * only keeps the table short, and runs much less often.
+     */
+    @Scheduled(fixedDelayString = "${todoapp.stateless-auth.revocation-cleanup:PT1H}",
+            initialDelayString = "${todoapp.stateless-auth.revocation-cleanup:PT1H}")
+    @Transactional
+    public void deleteExpiredRevocations() {
+        tokenRevocationRepository.deleteExpired(Instant.now());
+    }
+
+    private void addUserRevocation(Long userId, Revocation revocation) {
+        revokedUsers.merge(userId, revocation, (current, added) ->
+                added.issuedBefore().isAfter(current.issuedBefore()) ? added : current);
+    }
+
+    private Optional<Token> verify(String value) {
+        String[] parts = value.split("\\.");
+        if (parts.length != 3 || !keys.containsKey(parts[0])) {
+            return Optional.empty();
+        }
+        try {
+            byte[] signature = DECODER.decode(parts[2]);
+            if (!MessageDigest.isEqual(signature, sign(keys.get(parts[0]), parts[0] + "." + parts[1]))) {
+                return Optional.empty();
+            }
+            String[] fields = new String(DECODER.decode(parts[1]), StandardCharsets.UTF_8).split("\\|", 6);
+            Token token = new Token(Long.valueOf(fields[0]), Instant.ofEpochMilli(Long.parseLong(fields[1])),
+                    Instant.ofEpochSecond(Long.parseLong(fields[2])), fields[3],
+                    AuthorityUtils.commaSeparatedStringToAuthorityList(fields[4]), fields[5]);
+            return isValid(token) ? Optional.of(token) : Optional.empty();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isValid(Token token) {
+        if (!token.expiresAt().isAfter(Instant.now()) || revokedTokens.containsKey(token.tokenId())) {
+            return false;
+        }
+        Revocation revocation = revokedUsers.get(token.userId());
+        return revocation == null || !token.issuedAt().isBefore(revocation.issuedBefore());
+    }
+
+    private static byte[] sign(SecretKeySpec key, String signed) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static ResponseCookie cookie(String value, Duration maxAge, boolean secure) {
+        return ResponseCookie.from(COOKIE, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+    }
+}
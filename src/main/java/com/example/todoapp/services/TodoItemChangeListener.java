@@ -0,0 +1,177 @@
+package com.example.todoapp.services;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Feeds the committed inserts, updates and deletes of todo items to the structures maintained
+ * incrementally from them: {@link TodoItemStatsService} and {@link TodoItemSearchService}.
+ * Hibernate hands updates over with the state the item was loaded with, so edits changing the status,
+ * category, store or quantity move the item between groups without querying its previous state.
+ * The statistics are also told when a write is flushed, so they know which writes are still in flight.
+ */
+@Component
+// Nothing depends on it, so with lazy initialization it would never register itself
+@Lazy(false)
+public class TodoItemChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient EntityManagerFactory entityManagerFactory;
+    private final transient TodoItemStatsService todoItemStatsService;
+    private final transient TodoItemSearchService todoItemSearchService;
+
+    public TodoItemChangeListener(EntityManagerFactory entityManagerFactory,
+            TodoItemStatsService todoItemStatsService, TodoItemSearchService todoItemSearchService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.todoItemStatsService = todoItemStatsService;
+        this.todoItemSearchService = todoItemSearchService;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        FlushedWrites flushedWrites = new FlushedWrites();
+        registry.appendListeners(EventType.POST_INSERT, flushedWrites);
+        registry.appendListeners(EventType.POST_UPDATE, flushedWrites);
+        registry.appendListeners(EventType.POST_DELETE, flushedWrites);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == TodoItem.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof TodoItem item) {
+            todoItemStatsService.inserted(item);
+            todoItemSearchService.index(item);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof TodoItem item)) {
+            return;
+        }
+        todoItemSearchService.index(item);
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // Updated without a loaded state, e.g. a detached item reattached, nothing to move it from
+            todoItemStatsService.invalidate(item.getUser().getId());
+            todoItemStatsService.settled(item.getUser().getId());
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        todoItemStatsService.updated(
+                previousUserId(event),
+                (Boolean) oldState[persister.getPropertyIndex("isComplete")],
+                (String) oldState[persister.getPropertyIndex("itemCategory")],
+                (String) oldState[persister.getPropertyIndex("storeName")],
+                (Integer) oldState[persister.getPropertyIndex("quantity")],
+                item);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof TodoItem item) {
+            todoItemStatsService.deleted(item);
+            todoItemSearchService.remove(item);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Rolled back, nothing to count
+        if (event.getEntity() instanceof TodoItem item) {
+            todoItemStatsService.settled(item.getUser().getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        if (event.getEntity() instanceof TodoItem item) {
+            if (event.getOldState() != null) {
+                todoItemStatsService.settled(previousUserId(event));
+            }
+            todoItemStatsService.settled(item.getUser().getId());
+        }
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        if (event.getEntity() instanceof TodoItem item) {
+            todoItemStatsService.settled(item.getUser().getId());
+        }
+    }
+
+    private static Long previousUserId(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        return ((Users) event.getOldState()[persister.getPropertyIndex("user")]).getId();
+    }
+
+    /**
+     * Reports the writes of todo items as they are flushed, before their transaction completes.
+     * Every write reported here is reported again once committed or rolled back, mirroring the events above.
+     */
+    private class FlushedWrites implements PostInsertEventListener, PostUpdateEventListener,
+            PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof TodoItem item) {
+                todoItemStatsService.flushed(item.getUser().getId());
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof TodoItem item) {
+                if (event.getOldState() != null) {
+                    todoItemStatsService.flushed(previousUserId(event));
+                }
+                todoItemStatsService.flushed(item.getUser().getId());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof TodoItem item) {
+                todoItemStatsService.flushed(item.getUser().getId());
+            }
+        }
+    }
+}
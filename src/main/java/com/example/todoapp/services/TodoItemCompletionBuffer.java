@@ -0,0 +1,237 @@
+package com.example.todoapp.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.repositories.TodoItemRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for the completion status of todo items.
+ *
+ * <p>Toggles are recorded in memory and written later, on an interval or as soon as
+ * {@code todoapp.toggle.max-pending} items are pending, as one JDBC batch of updates for the whole buffer.
+ * Repeated toggles of an item coalesce into a single write, or none if it ends up back at its stored
+ * status. Until written, the pending status is laid over the items read through {@link TodoItemService}
+ * and {@link TodoItemSearchService} of this node, so other nodes see it once it is written, within
+ * {@code todoapp.toggle.flush-interval}. The writes are entity updates, so {@link TodoItemChangeListener}
+ * moves each item between the groups of {@link TodoItemStatsService} like any other edit;
+ * statistics and exports see the status once it is written. The buffer is drained when the application
+ * shuts down.
+ */
+@Service
+public class TodoItemCompletionBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoItemCompletionBuffer.class);
+
+    private final TodoItemRepository todoItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserVersionService userVersionService;
+    private final Duration flushInterval;
+    private final int maxPending;
+    private final int chunkSize;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "completion-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TodoItemCompletionBuffer(TodoItemRepository todoItemRepository, TransactionTemplate transactionTemplate,
+            UserVersionService userVersionService,
+            @Value("${todoapp.toggle.flush-interval:500ms}") Duration flushInterval,
+            @Value("${todoapp.toggle.max-pending:1000}") int maxPending,
+            @Value("${todoapp.batch.chunk-size:500}") int chunkSize) {
+        this.todoItemRepository = todoItemRepository;
+        // Flushes commit on their own, even when requested from within another transaction
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.userVersionService = userVersionService;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+        this.chunkSize = chunkSize;
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Toggles the completion status of a todo item of a user. The new status is visible to reads at once
+     * and written to the database later.
+     *
+     * @param userId the ID of the user owning the todo item
+     * @param id     the ID of the todo item
+     * @return the new completion status of the todo item
+     * @throws IllegalArgumentException if the user has no todo item with the given ID
+     */
+    public boolean toggle(Long userId, Long id) {
+        Pending toggled;
+        // Compare-and-set, so the stored status is read outside the map's locks; retried if the change
+        // was replaced, flushed or discarded meanwhile
+        while (true) {
+            Pending current = pending.get(id);
+            if (current == null) {
+                boolean stored = todoItemRepository.findCompletionByIdAndUserId(id, userId)
+                        .orElseThrow(() -> new IllegalArgumentException("TodoItem id: " + id + " not found"));
+                toggled = new Pending(userId, stored, !stored);
+                if (pending.putIfAbsent(id, toggled) == null) {
+                    break;
+                }
+            } else if (current.userId().equals(userId)) {
+                toggled = current.toggled();
+                // Toggled back to the stored status, nothing left to write
+                if (toggled.stored() == toggled.complete()
+                        ? pending.remove(id, current) : pending.replace(id, current, toggled)) {
+                    break;
+                }
+            } else {
+                throw new IllegalArgumentException("TodoItem id: " + id + " not found");
+            }
+        }
+        if (pending.size() >= maxPending) {
+            flusher.execute(this::flushQuietly);
+        }
+        userVersionService.bump(userId);
+        return toggled.complete();
+    }
+
+    /**
+     * Lays the pending completion status over todo items read from the database.
+     *
+     * @param items the todo items read
+     * @return the todo items with their pending completion status
+     */
+    public List<TodoItemView> overlay(List<TodoItemView> items) {
+        if (pending.isEmpty()) {
+            return items;
+        }
+        List<TodoItemView> overlaid = new ArrayList<>(items.size());
+        for (TodoItemView item : items) {
+            Pending change = pending.get(item.id());
+            overlaid.add(change == null ? item : item.withIsComplete(change.complete()));
+        }
+        return overlaid;
+    }
+
+    /**
+     * Retrieves the pending completion status of a todo item.
+     *
+     * @param id the ID of the todo item
+     * @return the pending completion status, or null if none is pending
+     */
+    public Boolean pendingStatus(Long id) {
+        Pending change = pending.get(id);
+        return change == null ? null : change.complete();
+    }
+
+    /**
+     * Drops the pending changes of todo items of a user about to be overwritten or deleted, so they aren't
+     * written over the newer state. A flush in progress either skips them or has locked their rows,
+     * in which case the newer write waits for it and lands last.
+     *
+     * @param userId the ID of the user owning the todo items, changes of other users' items are kept
+     * @param ids    the IDs of the todo items
+     */
+    public void discard(Long userId, Collection<Long> ids) {
+        for (Long id : ids) {
+            pending.computeIfPresent(id, (key, change) -> change.userId().equals(userId) ? null : change);
+        }
+    }
+
+    /**
+     * Writes every pending change in its own transaction. The todo items are read in chunks of IDs with their
+     * rows locked, then updated as entities and sent to the database as JDBC batches. The buffer itself is
+     * never locked during the I/O, so toggles and discards don't wait for it; flushes running at once find
+     * the status already written by the first and leave it.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Pending> batch = new HashMap<>(pending);
+        List<Long> ids = new ArrayList<>(batch.keySet());
+
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Pending statuses are only laid over reads on this node, other nodes see them once written
+            batch.values().stream().map(Pending::userId).distinct().forEach(userVersionService::bump);
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                for (TodoItem item : todoItemRepository.findAllByIdInForUpdate(
+                        ids.subList(from, Math.min(from + chunkSize, ids.size())))) {
+                    Pending change = batch.get(item.getId());
+                    // Checked once the row is locked: a change discarded by now was superseded by a newer write
+                    if (pending.containsKey(item.getId()) && item.getUser().getId().equals(change.userId())
+                            && !Boolean.valueOf(change.complete()).equals(item.getIsComplete())) {
+                        item.setIsComplete(change.complete());
+                        item.setUpdatedAt(now);
+                    }
+                }
+            }
+        });
+
+        // Keep the changes toggled again meanwhile, now relative to the status just written
+        batch.forEach((id, written) -> pending.computeIfPresent(id, (key, current) -> {
+            if (current == written || current.complete() == written.complete()) {
+                return null;
+            }
+            return new Pending(current.userId(), written.complete(), current.complete());
+        }));
+        log.debug("Flushed {} completion changes", batch.size());
+    }
+
+    /**
+     * Writes the pending changes before the application shuts down.
+     */
+    @PreDestroy
+    void drain() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // The changes stay pending and are retried on the next flush
+            log.warn("Failed to flush completion changes", e);
+        }
+    }
+
+    /**
+     * A completion status waiting to be written.
+     *
+     * @param userId   the ID of the user owning the todo item
+     * @param stored   the completion status stored in the database
+     * @param complete the completion status to write
+     */
+    private record Pending(Long userId, boolean stored, boolean complete) {
+
+        Pending toggled() {
+            return new Pending(userId, stored, !complete);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.todoapp.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.todoapp.dto.TodoItemFileFormat;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.repositories.TodoItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class TodoItemExportService {
+
+    private static final String CSV_HEADER = "id,description,isComplete,itemCategory,quantity,storeName,createdAt";
+
+    private final TodoItemRepository todoItemRepository;
+    private final ObjectMapper objectMapper;
+
+    public TodoItemExportService(TodoItemRepository todoItemRepository, ObjectMapper objectMapper) {
+        this.todoItemRepository = todoItemRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every TodoItem of a user to an output stream, row by row as they are read from the database.
+     *
+     * @param userId the ID of the user owning the TodoItems
+     * @param format the format to write
+     * @param output the stream to write to, left open
+     * @return the number of TodoItems written
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, TodoItemFileFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long count = 0;
+        if (format == TodoItemFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<TodoItemView> items = todoItemRepository.streamViewsByUserId(userId)) {
+            Iterator<TodoItemView> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                TodoItemView item = iterator.next();
+                if (format == TodoItemFileFormat.CSV) {
+                    writeCsv(writer, item);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(item));
+                }
+                writer.write('\n');
+                count++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsv(Writer writer, TodoItemView item) throws IOException {
+        writer.write(String.valueOf(item.id()));
+        writer.write(',');
+        writer.write(csv(item.description()));
+        writer.write(',');
+        writer.write(String.valueOf(Boolean.TRUE.equals(item.isComplete())));
+        writer.write(',');
+        writer.write(csv(item.itemCategory()));
+        writer.write(',');
+        writer.write(item.quantity() == null ? "" : item.quantity().toString());
+        writer.write(',');
+        writer.write(csv(item.storeName()));
+        writer.write(',');
+        writer.write(item.createdAt() == null ? "" : item.createdAt().toString());
+    }
+
+    /**
+     * Quotes a CSV field when it contains a separator, a quote or a line break.
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
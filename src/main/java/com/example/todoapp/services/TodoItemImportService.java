@@ -0,0 +1,229 @@
+package com.example.todoapp.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.todoapp.dto.TodoItemFileFormat;
+import com.example.todoapp.dto.TodoItemImportError;
+import com.example.todoapp.dto.TodoItemImportProgress;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class TodoItemImportService {
+
+    // The rejected rows detailed in one progress report, the others are only counted
+    static final int MAX_ERRORS_PER_REPORT = 100;
+
+    private final TodoItemService todoItemService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public TodoItemImportService(TodoItemService todoItemService, ObjectMapper objectMapper,
+            @Value("${todoapp.batch.chunk-size:500}") int chunkSize) {
+        this.todoItemService = todoItemService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports todo items for a user from a CSV or NDJSON stream. The stream is parsed row by row,
+     * each row is validated on its own, column lengths included, and valid rows are written in chunks,
+     * each chunk in one transaction with batched inserts; only one chunk is held in memory at a time.
+     * A rejected row is reported with its line and never fails the chunk around it. IDs in the file
+     * are ignored, every row creates a new todo item.
+     *
+     * <p>CSV files start with a header naming the columns, in any order, as the export does:
+     * {@code description,isComplete,itemCategory,quantity,storeName}; other columns are ignored.
+     * {@code isComplete} is {@code true}, {@code false} or empty.
+     *
+     * @param userId   the ID of the user owning the imported todo items
+     * @param format   the format of the stream
+     * @param input    the stream to read
+     * @param progress notified every chunk size rows read, valid or not, and at the end
+     * @return the final progress of the import
+     * @throws IOException if the stream cannot be read or is not a valid CSV file
+     */
+    public TodoItemImportProgress importItems(Long userId, TodoItemFileFormat format, InputStream input,
+            Consumer<TodoItemImportProgress> progress) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ChunkWriter writer = new ChunkWriter(userId, progress);
+        if (format == TodoItemFileFormat.CSV) {
+            readCsv(reader, writer);
+        } else {
+            readNdjson(reader, writer);
+        }
+        return writer.finish();
+    }
+
+    private void readCsv(BufferedReader reader, ChunkWriter writer) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("description")) {
+            throw new IOException("CSV header must contain a description column");
+        }
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            long line = csv.getRecordLine();
+            Boolean isComplete;
+            Integer quantity;
+            try {
+                isComplete = isComplete(field(fields, columns, "isComplete"));
+            } catch (IllegalArgumentException e) {
+                writer.reject(line, "isComplete must be true or false");
+                continue;
+            }
+            try {
+                quantity = quantity(field(fields, columns, "quantity"));
+            } catch (NumberFormatException e) {
+                writer.reject(line, "Quantity is not a number");
+                continue;
+            }
+            writer.add(line, new TodoItemRequest(null, field(fields, columns, "description"), isComplete,
+                    field(fields, columns, "itemCategory"), quantity, field(fields, columns, "storeName")));
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ChunkWriter writer) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                TodoItemRequest row = objectMapper.readValue(text, TodoItemRequest.class);
+                if (row == null) {
+                    writer.reject(line, "Not a JSON object");
+                    continue;
+                }
+                writer.add(line, new TodoItemRequest(null, row.description(), row.isComplete(), row.itemCategory(),
+                        row.quantity(), row.storeName()));
+            } catch (JacksonException e) {
+                writer.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static Boolean isComplete(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException(value);
+        };
+    }
+
+    private static Integer quantity(String value) {
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+
+    /**
+     * Accumulates valid rows and writes them one chunk at a time, reporting progress every chunk size rows read.
+     */
+    private class ChunkWriter {
+
+        private final Long userId;
+        private final Consumer<TodoItemImportProgress> progress;
+        private final List<TodoItemRequest> chunk = new ArrayList<>(chunkSize);
+        private List<TodoItemImportError> errors = new ArrayList<>();
+        private long omittedErrors;
+        private int unreported;
+        private int chunks;
+        private long imported;
+        private long rejected;
+
+        ChunkWriter(Long userId, Consumer<TodoItemImportProgress> progress) {
+            this.userId = userId;
+            this.progress = progress;
+        }
+
+        void add(long line, TodoItemRequest request) {
+            String error = request.validationError();
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            chunk.add(request);
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+            read();
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS_PER_REPORT) {
+                errors.add(new TodoItemImportError(line, message));
+            } else {
+                omittedErrors++;
+            }
+            read();
+        }
+
+        TodoItemImportProgress finish() {
+            if (!chunk.isEmpty()) {
+                flush();
+            }
+            return report(true);
+        }
+
+        private void read() {
+            if (++unreported == chunkSize) {
+                report(false);
+            }
+        }
+
+        private void flush() {
+            todoItemService.saveAll(userId, chunk);
+            imported += chunk.size();
+            chunks++;
+            chunk.clear();
+        }
+
+        private TodoItemImportProgress report(boolean done) {
+            TodoItemImportProgress report = new TodoItemImportProgress(chunks, imported, rejected, errors,
+                    omittedErrors, done);
+            progress.accept(report);
+            errors = new ArrayList<>();
+            omittedErrors = 0;
+            unreported = 0;
+            return report;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.todoapp.services;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.todoapp.dto.TodoItemSearchDocument;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.repositories.TodoItemRepository;
+import com.example.todoapp.repositories.TodoItemSpecifications;
+
+/**
+ * Searches the todo items of a user by the words of their description, category and store.
+ *
+ * <p>An inverted index from words to item IDs is kept in memory, one per user. Words are indexed
+ * lowercased and without accents, so "feijao" finds "Feijão", and every query word matches as a prefix
+ * of an indexed word; all query words must match. The index is built from the database at startup,
+ * before requests are served, then updated from every committed write of a todo item
+ * (see {@link TodoItemChangeListener}) and bulk deletes. Only this node's writes are
+ * seen as events; with shared versions, a user's index is rebuilt when {@link UserVersionService} finds that
+ * another node wrote their items.
+ */
+@Service
+// Built before requests are served even with lazy initialization, which would skip the callback below
+@Lazy(false)
+public class TodoItemSearchService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoItemSearchService.class);
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACCENT = Pattern.compile("\\p{M}+");
+
+    private final TodoItemRepository todoItemRepository;
+    private final TodoItemCompletionBuffer completionBuffer;
+    private final TransactionTemplate transaction;
+    private final UserVersionService userVersionService;
+    private final Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    public TodoItemSearchService(TodoItemRepository todoItemRepository, TodoItemCompletionBuffer completionBuffer,
+            TransactionTemplate transactionTemplate, UserVersionService userVersionService) {
+        this.todoItemRepository = todoItemRepository;
+        this.completionBuffer = completionBuffer;
+        this.userVersionService = userVersionService;
+        // Not read-only: the index is kept up to date from this snapshot on, so it must be read
+        // from the primary database, never from a read replica that may lag behind.
+        // Requires a new transaction, as rebuilds run after another one has committed
+        this.transaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        userVersionService.onMissedWrites(this::rebuild);
+    }
+
+    /**
+     * Builds the index of every user from the database.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        transaction.executeWithoutResult(status -> {
+            try (Stream<TodoItemSearchDocument> documents = todoItemRepository.streamSearchDocuments()) {
+                documents.forEach(document -> index(document.userId())
+                        .put(document.id(), terms(document), document.createdAt()));
+            }
+        });
+        log.info("Indexed the todo items of {} users for search in {} ms", indexes.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Searches the todo items of a user.
+     *
+     * @param userId the ID of the user
+     * @param query  the words to search for, each matching as a prefix
+     * @param limit  the maximum number of results
+     * @return the matching todo items, newest first
+     */
+    public List<TodoItemView> search(Long userId, String query, int limit) {
+        List<String> prefixes = List.copyOf(tokenize(query));
+        userVersionService.catchUp(userId);
+        UserIndex index = indexes.get(userId);
+        if (prefixes.isEmpty() || index == null) {
+            return List.of();
+        }
+        List<Long> ids = index.search(prefixes, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return completionBuffer.overlay(todoItemRepository.findViews(
+                TodoItemSpecifications.belongsTo(userId).and(TodoItemSpecifications.hasIdIn(ids)),
+                Sort.by(Sort.Direction.DESC, "createdAt", "id"), limit));
+    }
+
+    /**
+     * Indexes a committed new or updated todo item, replacing the words it was indexed under before.
+     *
+     * @param item the todo item written
+     */
+    void index(TodoItem item) {
+        index(item.getUser().getId()).put(item.getId(),
+                terms(item.getDescription(), item.getItemCategory(), item.getStoreName()), item.getCreatedAt());
+    }
+
+    /**
+     * Removes a committed deleted todo item from the index.
+     *
+     * @param item the todo item deleted
+     */
+    void remove(TodoItem item) {
+        UserIndex index = indexes.get(item.getUser().getId());
+        if (index != null) {
+            index.remove(item.getId());
+        }
+    }
+
+    /**
+     * Removes todo items deleted by a bulk statement, which isn't seen as entity events, from the index
+     * of their user. Inside a transaction they are removed once it commits.
+     *
+     * @param userId the ID of the user owning the todo items
+     * @param ids    the IDs of the todo items deleted, IDs of other users' items are ignored
+     */
+    public void remove(Long userId, Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        afterCommit(() -> {
+            UserIndex index = indexes.get(userId);
+            if (index != null) {
+                removed.forEach(index::remove);
+            }
+        });
+    }
+
+    /**
+     * Drops the index of a user whose todo items were all deleted by a bulk statement.
+     * Inside a transaction it is dropped once it commits.
+     *
+     * @param userId the ID of the user
+     */
+    public void drop(Long userId) {
+        afterCommit(() -> indexes.remove(userId));
+    }
+
+    /**
+     * Rebuilds the index of a user from the database, after a change not seen as entity events whose
+     * todo items aren't known, such as a bulk delete by date. Inside a transaction the index is rebuilt
+     * once it commits.
+     *
+     * @param userId the ID of the user whose todo items changed
+     */
+    public void reindex(Long userId) {
+        afterCommit(() -> rebuild(userId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void rebuild(Long userId) {
+        UserIndex index = index(userId);
+        // Loaded into a new index, without holding the user's one, so searches and writes go on meanwhile;
+        // the writes applied during the load are replayed onto the new index as it replaces the old one.
+        // Indexing is idempotent, so none is lost or counted twice
+        List<Consumer<UserIndex>> applied = index.startLoad();
+        UserIndex loaded = new UserIndex();
+        try {
+            transaction.executeWithoutResult(status -> {
+                try (Stream<TodoItemSearchDocument> documents =
+                        todoItemRepository.streamSearchDocumentsByUserId(userId)) {
+                    documents.forEach(document -> loaded.put(document.id(), terms(document), document.createdAt()));
+                }
+            });
+        } catch (RuntimeException e) {
+            index.endLoad(applied, null);
+            throw e;
+        }
+        index.endLoad(applied, loaded);
+    }
+
+    private UserIndex index(Long userId) {
+        return indexes.computeIfAbsent(userId, id -> new UserIndex());
+    }
+
+    private static Set<String> terms(TodoItemSearchDocument document) {
+        return terms(document.description(), document.itemCategory(), document.storeName());
+    }
+
+    private static Set<String> terms(String... texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            terms.addAll(tokenize(text));
+        }
+        return terms;
+    }
+
+    /**
+     * Splits a text into lowercase words without accents.
+     *
+     * @param text the text to split, may be null
+     * @return the distinct words of the text, in order
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = ACCENT.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATOR.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * The index of one user. Words are kept sorted, so the words starting with a prefix are a sub-map.
+     * The creation time of every item is kept too, to rank matches in the order the results are shown.
+     */
+    private static class UserIndex {
+
+        // Newest first, as the results are sorted; items without a creation time last, as the database sorts them
+        private static final Comparator<Map.Entry<Long, Document>> NEWEST_FIRST = Comparator
+                .comparing((Map.Entry<Long, Document> entry) -> entry.getValue().createdAt(),
+                        Comparator.nullsFirst(Comparator.<Instant>naturalOrder()))
+                .thenComparing(Map.Entry::getKey)
+                .reversed();
+
+        private TreeMap<String, Set<Long>> postings = new TreeMap<>();
+        private Map<Long, Document> documents = new HashMap<>();
+        // The writes applied during each load of a new index in progress, to replay onto it
+        private final List<List<Consumer<UserIndex>>> loads = new ArrayList<>();
+
+        synchronized void put(Long id, Set<String> terms, Instant createdAt) {
+            loads.forEach(applied -> applied.add(index -> index.put(id, terms, createdAt)));
+            removeDocument(id);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new HashSet<>()).add(id);
+            }
+            documents.put(id, new Document(terms, createdAt));
+        }
+
+        synchronized void remove(Long id) {
+            loads.forEach(applied -> applied.add(index -> index.remove(id)));
+            removeDocument(id);
+        }
+
+        private void removeDocument(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                Set<Long> ids = postings.get(term);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        /**
+         * Starts recording the writes applied from now on, for a new index being loaded.
+         */
+        synchronized List<Consumer<UserIndex>> startLoad() {
+            List<Consumer<UserIndex>> applied = new ArrayList<>();
+            loads.add(applied);
+            return applied;
+        }
+
+        /**
+         * Stops recording the writes of a load and, unless it failed, replays them onto the index loaded,
+         * which then replaces the content of this one.
+         */
+        synchronized void endLoad(List<Consumer<UserIndex>> applied, UserIndex loaded) {
+            loads.removeIf(load -> load == applied);
+            if (loaded == null) {
+                return;
+            }
+            applied.forEach(write -> write.accept(loaded));
+            postings = loaded.postings;
+            documents = loaded.documents;
+        }
+
+        /**
+         * Finds the IDs matching every prefix, newest first by creation time, then by ID.
+         */
+        synchronized List<Long> search(List<String> prefixes, int limit) {
+            Set<Long> matches = null;
+            for (String prefix : prefixes) {
+                Set<Long> ids = new HashSet<>();
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+                if (matches == null) {
+                    matches = ids;
+                } else {
+                    matches.retainAll(ids);
+                }
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return matches.stream()
+                    .map(id -> Map.entry(id, documents.get(id)))
+                    .sorted(NEWEST_FIRST)
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+
+    private record Document(Set<String> terms, Instant createdAt) {
+    }
+}
@@ -1,29 +1,84 @@
 package com.example.todoapp.services;
 
+import com.example.todoapp.dto.TodoItemCursor;
+import com.example.todoapp.dto.TodoItemFilter;
+import com.example.todoapp.dto.TodoItemPage;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemView;
 import com.example.todoapp.models.TodoItem;
 import com.example.todoapp.models.Users;
 import com.example.todoapp.repositories.TodoItemRepository;
+import com.example.todoapp.repositories.TodoItemSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TodoItemService {
 
     @Autowired
     private TodoItemRepository todoItemRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private UserVersionService userVersionService;
+    @Autowired
+    private TodoItemStatsService todoItemStatsService;
+    @Autowired
+    private TodoItemSearchService todoItemSearchService;
+    @Autowired
+    private TodoItemCompletionBuffer completionBuffer;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${todoapp.batch.chunk-size:500}")
+    private int chunkSize;
 
     /**
-     * Retrieves a TodoItem by its ID.
+     * Retrieves a TodoItem by its ID, with its pending completion status if it was toggled.
      *
      * @param id the ID of the TodoItem to retrieve
      * @return an Optional containing the retrieved TodoItem, or an empty Optional if not found
      */
     public Optional<TodoItem> getById(Long id) {
-        return todoItemRepository.findById(id);
+        Optional<TodoItem> todoItem = todoItemRepository.findById(id);
+        Boolean pendingStatus = completionBuffer.pendingStatus(id);
+        if (pendingStatus != null) {
+            todoItem.ifPresent(item -> item.setIsComplete(pendingStatus));
+        }
+        return todoItem;
+    }
+
+    /**
+     * Retrieves the list view projection of a TodoItem of a user, with its pending completion status if it was toggled.
+     *
+     * @param userId the ID of the user owning the TodoItem
+     * @param id     the ID of the TodoItem to retrieve
+     * @return an Optional containing the projection, or an empty Optional if the user has no TodoItem with the ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<TodoItemView> getView(Long userId, Long id) {
+        return completionBuffer.overlay(todoItemRepository.findViews(
+                TodoItemSpecifications.belongsTo(userId).and(TodoItemSpecifications.hasIdIn(List.of(id))),
+                Sort.unsorted(), 1)).stream().findFirst();
     }
 
     /**
@@ -44,9 +99,104 @@ public class TodoItemService {
     public TodoItem save(TodoItem todoItem) {
         if (todoItem.getId() == null) {
             todoItem.setCreatedAt(Instant.now());
+        } else {
+            // The saved status supersedes a pending toggle
+            completionBuffer.discard(todoItem.getUser().getId(), List.of(todoItem.getId()));
         }
         todoItem.setUpdatedAt(Instant.now());
-        return todoItemRepository.save(todoItem);
+        TodoItem saved = todoItemRepository.save(todoItem);
+        userVersionService.bump(saved.getUser().getId());
+        return saved;
+    }
+
+    /**
+     * Creates or updates many TodoItems of a user at once. The items are written in chunks,
+     * each in its own transaction and sent to the database as JDBC batches; a failing chunk
+     * is rolled back without undoing the chunks written before it. The TodoItems to update are
+     * checked before the first chunk is written, so a batch naming an unknown or foreign TodoItem
+     * writes nothing.
+     *
+     * @param userId   the ID of the user owning the TodoItems
+     * @param requests the TodoItems to create (without ID) or update (with ID)
+     * @return the saved TodoItems, in the order of the requests
+     * @throws IllegalArgumentException if a TodoItem to update is not found or not owned by the user
+     */
+    public List<TodoItemView> saveAll(Long userId, List<TodoItemRequest> requests) {
+        if (requests.size() > chunkSize) {
+            // A single chunk checks its own TodoItems and is rolled back as a whole
+            checkOwned(userId, requests);
+        }
+        List<TodoItemView> saved = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<TodoItemRequest> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+            saved.addAll(transactionTemplate.execute(status -> saveChunk(userId, chunk)));
+        }
+        return saved;
+    }
+
+    /**
+     * Checks that every TodoItem to update belongs to the user, a chunk of IDs at a time.
+     *
+     * @throws IllegalArgumentException if a TodoItem to update is not found or not owned by the user
+     */
+    private void checkOwned(Long userId, List<TodoItemRequest> requests) {
+        List<Long> ids = requests.stream().map(TodoItemRequest::id).filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Set<Long> owned = todoItemRepository.findIdsByUserIdAndIdIn(userId, chunk);
+            for (Long id : chunk) {
+                if (!owned.contains(id)) {
+                    throw new IllegalArgumentException("TodoItem id: " + id + " not found");
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves one chunk of TodoItems in the current transaction, then detaches them.
+     */
+    private List<TodoItemView> saveChunk(Long userId, List<TodoItemRequest> chunk) {
+        List<Long> ids = chunk.stream().map(TodoItemRequest::id).filter(Objects::nonNull).toList();
+        Map<Long, TodoItem> existing = new HashMap<>();
+        for (TodoItem item : todoItemRepository.findAllById(ids)) {
+            if (item.getUser().getId().equals(userId)) {
+                existing.put(item.getId(), item);
+            }
+        }
+
+        Users owner = entityManager.getReference(Users.class, userId);
+        Instant now = Instant.now();
+        List<TodoItem> items = new ArrayList<>(chunk.size());
+        for (TodoItemRequest request : chunk) {
+            TodoItem item;
+            if (request.id() == null) {
+                item = new TodoItem();
+                item.setUser(owner);
+                item.setCreatedAt(now);
+            } else {
+                item = existing.get(request.id());
+                if (item == null) {
+                    throw new IllegalArgumentException("TodoItem id: " + request.id() + " not found");
+                }
+            }
+            item.setDescription(request.description());
+            item.setIsComplete(Boolean.TRUE.equals(request.isComplete()));
+            item.setItemCategory(request.itemCategory());
+            item.setQuantity(request.quantity());
+            item.setStoreName(request.storeName());
+            item.setUpdatedAt(now);
+            items.add(item);
+        }
+
+        // The saved statuses supersede pending toggles
+        completionBuffer.discard(userId, ids);
+        todoItemRepository.saveAll(items);
+        todoItemRepository.flush();
+        userVersionService.bump(userId);
+        List<TodoItemView> views = items.stream().map(TodoItemView::of).toList();
+        // Keep the persistence context from growing across chunks
+        entityManager.clear();
+        return views;
     }
 
     /**
@@ -55,70 +205,177 @@ public class TodoItemService {
      * @param todoItem the TodoItem to be deleted
      */
     public void delete(TodoItem todoItem) {
+        completionBuffer.discard(todoItem.getUser().getId(), List.of(todoItem.getId()));
         todoItemRepository.delete(todoItem);
+        userVersionService.bump(todoItem.getUser().getId());
     }
 
     /**
-     * Retrieves TodoItems associated with a specific user.
+     * Deletes a TodoItem of a user.
      *
-     * @param user the user associated with the TodoItems
-     * @return a list of TodoItems associated with the user
+     * @param userId the ID of the user owning the TodoItem
+     * @param id     the ID of the TodoItem to delete
+     * @return true if the TodoItem was deleted, false if the user has no TodoItem with the ID
      */
-    public List<TodoItem> findByUser(Users user) {
-        return todoItemRepository.findByUser(user);
+    @Transactional
+    public boolean delete(Long userId, Long id) {
+        return todoItemRepository.findById(id)
+                .filter(todoItem -> todoItem.getUser().getId().equals(userId))
+                .map(todoItem -> {
+                    delete(todoItem);
+                    return true;
+                })
+                .orElse(false);
     }
 
     /**
-     * Retrieves TodoItems associated with a specific user and created within a specified time range.
+     * Marks many TodoItems of a user as complete with a single UPDATE.
      *
-     * @param user       the user associated with the TodoItems
-     * @param startDate  the start date of the time range
-     * @param endDate    the end date of the time range
-     * @return a list of TodoItems associated with the user and created within the time range
+     * @param userId the ID of the user owning the TodoItems
+     * @param ids    the IDs of the TodoItems to complete, IDs of other users' items are ignored
+     * @return the number of TodoItems completed
      */
-    public List<TodoItem> findByUserAndCreatedAtBetween(Users user, Instant startDate, Instant endDate) {
-        return todoItemRepository.findByUserAndCreatedAtBetween(user, startDate, endDate);
+    @Transactional
+    public int completeAll(Long userId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        completionBuffer.discard(userId, ids);
+        return bumpIfChanged(userId, todoItemRepository.completeByUserIdAndIdIn(userId, ids, Instant.now()));
     }
 
     /**
-     * Retrieves TodoItems associated with a specific user, with a specified completion status, and created within a specified time range.
+     * Deletes many TodoItems of a user with a single DELETE.
      *
-     * @param user           the user associated with the TodoItems
-     * @param isComplete     the completion status of the TodoItems
-     * @param startDateTime  the start date and time of the time range
-     * @param endDateTime    the end date and time of the time range
-     * @return a list of TodoItems associated with the user, with the specified completion status,
-     *         and created within the time range
+     * @param userId the ID of the user owning the TodoItems
+     * @param ids    the IDs of the TodoItems to delete, IDs of other users' items are ignored
+     * @return the number of TodoItems deleted
      */
-    public List<TodoItem> findByUserAndIsCompleteAndCreatedAtBetween(Users user, boolean isComplete, Instant startDateTime, Instant endDateTime) {
-        return todoItemRepository.findByUserAndIsCompleteAndCreatedAtBetween(user, isComplete, startDateTime, endDateTime);
+    @Transactional
+    public int deleteAll(Long userId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        completionBuffer.discard(userId, ids);
+        int deleted = todoItemRepository.deleteByUserIdAndIdIn(userId, ids);
+        if (deleted > 0) {
+            todoItemSearchService.remove(userId, ids);
+        }
+        return bumpIfChanged(userId, deleted);
     }
 
     /**
-     * Retrieves TodoItems associated with a specific user, with a false completion status, and created within a specified time range.
+     * Deletes every TodoItem of a user with a single DELETE, e.g. before the user is deleted,
+     * so the items aren't loaded and deleted one by one by the cascade.
      *
-     * @param user           the user associated with the TodoItems
-     * @param startDateTime  the start date and time of the time range
-     * @param endDateTime    the end date and time of the time range
-     * @return a list of TodoItems associated with the user, with a null completion status,
-     *         and created within the time range
+     * @param userId the ID of the user owning the TodoItems
+     * @return the number of TodoItems deleted
      */
-    public List<TodoItem> findByUserAndIsCompleteFalseAndCreatedAtBetween(Users user, Instant startDateTime, Instant endDateTime) {
-        return todoItemRepository.findByUserAndIsCompleteFalseAndCreatedAtBetween(user, startDateTime, endDateTime);
+    @Transactional
+    public int deleteAllOfUser(Long userId) {
+        int deleted = todoItemRepository.deleteByUserId(userId);
+        if (deleted > 0) {
+            todoItemSearchService.drop(userId);
+        }
+        return bumpIfChanged(userId, deleted);
     }
 
     /**
-     * Retorna uma lista de TodoItems associados a um usuário específico, com status de conclusão definido como verdadeiro,
-     * e criados dentro de um intervalo de tempo especificado.
+     * Deletes the completed TodoItems of a user created before a date with a single DELETE.
      *
-     * @param user           O usuário associado aos TodoItems
-     * @param startDateTime  A data e hora de início do intervalo
-     * @param endDateTime    A data e hora de término do intervalo
-     * @return Uma lista de TodoItems associados ao usuário, com status de conclusão verdadeiro e criados dentro do intervalo especificado.
+     * @param userId the ID of the user owning the TodoItems
+     * @param before the date before which completed TodoItems are deleted (exclusive)
+     * @return the number of TodoItems deleted
      */
-    public List<TodoItem> findByUserAndIsCompleteTrueAndCreatedAtBetween(Users user, Instant startDateTime, Instant endDateTime) {
-        return todoItemRepository.findByUserAndIsCompleteTrueAndCreatedAtBetween(user, startDateTime, endDateTime);
+    @Transactional
+    public int deleteCompletedBefore(Long userId, Instant before) {
+        // Items toggled complete must be complete in the table to be selected
+        completionBuffer.flush();
+        int deleted = todoItemRepository.deleteCompletedByUserIdAndCreatedAtBefore(userId, before);
+        if (deleted > 0) {
+            todoItemSearchService.reindex(userId);
+        }
+        return bumpIfChanged(userId, deleted);
     }
 
+    /**
+     * Moves the version of a user forward and drops their statistics if a bulk statement changed
+     * any of their TodoItems; bulk statements aren't seen by the statistics as entity events.
+     *
+     * @param userId  the ID of the user owning the TodoItems
+     * @param changed the number of TodoItems changed
+     * @return the number of TodoItems changed
+     */
+    private int bumpIfChanged(Long userId, int changed) {
+        if (changed > 0) {
+            userVersionService.bump(userId);
+            todoItemStatsService.invalidate(userId);
+        }
+        return changed;
+    }
 
+    /**
+     * Retrieves TodoItems associated with a specific user.
+     *
+     * @param user the user associated with the TodoItems
+     * @return a list of TodoItems associated with the user
+     */
+    public List<TodoItem> findByUser(Users user) {
+        return todoItemRepository.findByUser(user);
+    }
+
+    /**
+     * Retrieves one page of the list view projections of the TodoItems matching a filter, using keyset pagination on creation date and ID.
+     *
+     * @param filter the criteria the TodoItems must match
+     * @param after  the cursor after which the page starts, or null
+     * @param before the cursor before which the page ends, or null; takes precedence over after
+     * @param size   the maximum number of TodoItems in the page
+     * @return the requested page of TodoItems with the cursors of the adjacent pages
+     */
+    @Transactional(readOnly = true)
+    public TodoItemPage findPage(TodoItemFilter filter, TodoItemCursor after, TodoItemCursor before, int size) {
+        Specification<TodoItem> specification = TodoItemSpecifications.matching(filter);
+        if (before != null) {
+            List<TodoItemView> items = completionBuffer.overlay(todoItemRepository.findViews(
+                    specification.and(TodoItemSpecifications.before(before)),
+                    TodoItemSpecifications.SEEK_ORDER.reverse(), size + 1));
+            return backwardPage(items, size);
+        }
+        if (after != null) {
+            specification = specification.and(TodoItemSpecifications.after(after));
+        }
+        List<TodoItemView> items = completionBuffer.overlay(
+                todoItemRepository.findViews(specification, TodoItemSpecifications.SEEK_ORDER, size + 1));
+        return forwardPage(items, after != null, size);
+    }
+
+    /**
+     * Builds a page from items read forward, in ascending order, with one extra item to detect a next page.
+     */
+    private TodoItemPage forwardPage(List<TodoItemView> items, boolean hasPrevious, int size) {
+        boolean hasNext = items.size() > size;
+        List<TodoItemView> pageItems = hasNext ? items.subList(0, size) : items;
+        if (pageItems.isEmpty()) {
+            return new TodoItemPage(pageItems, null, null);
+        }
+        return new TodoItemPage(pageItems,
+                hasNext ? TodoItemCursor.of(pageItems.get(pageItems.size() - 1)) : null,
+                hasPrevious ? TodoItemCursor.of(pageItems.get(0)) : null);
+    }
+
+    /**
+     * Builds a page from items read backward, in descending order, with one extra item to detect a previous page.
+     */
+    private TodoItemPage backwardPage(List<TodoItemView> items, int size) {
+        boolean hasPrevious = items.size() > size;
+        List<TodoItemView> pageItems = new ArrayList<>(hasPrevious ? items.subList(0, size) : items);
+        Collections.reverse(pageItems);
+        if (pageItems.isEmpty()) {
+            return new TodoItemPage(pageItems, null, null);
+        }
+        return new TodoItemPage(pageItems,
+                TodoItemCursor.of(pageItems.get(pageItems.size() - 1)),
+                hasPrevious ? TodoItemCursor.of(pageItems.get(0)) : null);
+    }
 }
@@ -0,0 +1,285 @@
+package com.example.todoapp.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.todoapp.dto.TodoItemStats;
+import com.example.todoapp.dto.TodoItemStatsGroup;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.repositories.TodoItemRepository;
+
+/**
+ * Keeps per-user counts of todo items by status, category and store, with their summed quantity.
+ *
+ * <p>A user's statistics are built with one GROUP BY over their own items the first time they are read,
+ * then updated in place from every committed insert, update and delete of a todo item (see
+ * {@link TodoItemChangeListener}), so reading them never queries the database again. Bulk statements
+ * bypass entity events, so they make the user's statistics be rebuilt on the next read instead.
+ *
+ * <p>A write is tracked from the moment it is flushed until its transaction completes. The GROUP BY can't tell
+ * whether such a write is in its result, so statistics built while a write of the user was in flight, or from a
+ * load during which one was flushed or invalidated, are returned but not kept; the next read builds them again.
+ * Kept statistics therefore never count a write twice or miss one. {@link #rebuild()} recounts the statistics
+ * kept and can be scheduled with {@code todoapp.stats.rebuild-cron}.
+ *
+ * <p>Only this node's writes are seen as events; with shared versions, a user's statistics are dropped
+ * when {@link UserVersionService} finds that another node wrote their items.
+ */
+@Service
+public class TodoItemStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoItemStatsService.class);
+
+    private final TodoItemRepository todoItemRepository;
+    private final UserVersionService userVersionService;
+    // Entries exist while a user has statistics, a write in flight or a load running; all changes go
+    // through compute, which serializes them per user
+    private final Map<Long, UserState> states = new ConcurrentHashMap<>();
+
+    public TodoItemStatsService(TodoItemRepository todoItemRepository, UserVersionService userVersionService) {
+        this.todoItemRepository = todoItemRepository;
+        this.userVersionService = userVersionService;
+        userVersionService.onMissedWrites(this::drop);
+    }
+
+    /**
+     * Retrieves the statistics of a user.
+     *
+     * @param userId the ID of the user
+     * @return the counts of the user's todo items by status, category and store
+     */
+    public TodoItemStats get(Long userId) {
+        userVersionService.catchUp(userId);
+        UserState state = states.get(userId);
+        UserStats cached = state == null ? null : state.stats;
+        if (cached != null) {
+            return cached.snapshot();
+        }
+
+        // The generation the load starts from, or -1 if a write is already in flight
+        long[] generation = new long[1];
+        states.compute(userId, (id, current) -> {
+            UserState started = current == null ? new UserState() : current;
+            started.loads++;
+            generation[0] = started.writes > 0 ? -1 : started.generation;
+            return started;
+        });
+        UserStats loaded;
+        try {
+            loaded = load(userId);
+        } catch (RuntimeException e) {
+            states.computeIfPresent(userId, (id, current) -> {
+                current.loads--;
+                return current.isIdle() ? null : current;
+            });
+            throw e;
+        }
+        states.computeIfPresent(userId, (id, current) -> {
+            current.loads--;
+            if (current.stats == null && current.generation == generation[0]) {
+                current.stats = loaded;
+            }
+            return current.isIdle() ? null : current;
+        });
+        return loaded.snapshot();
+    }
+
+    /**
+     * Tracks a write of a user's todo item flushed to the database, until {@link #inserted(TodoItem)},
+     * {@link #updated}, {@link #deleted(TodoItem)} or {@link #settled(Long)} reports its transaction completed.
+     *
+     * @param userId the ID of the user owning the todo item
+     */
+    void flushed(Long userId) {
+        states.compute(userId, (id, current) -> {
+            UserState state = current == null ? new UserState() : current;
+            state.writes++;
+            state.generation++;
+            return state;
+        });
+    }
+
+    /**
+     * Counts a committed new todo item.
+     *
+     * @param item the todo item inserted
+     */
+    void inserted(TodoItem item) {
+        settle(item.getUser().getId(), userStats -> userStats.add(key(item), 1, quantity(item)));
+    }
+
+    /**
+     * Moves a committed, updated todo item from the group of its previous state to the group of its new state.
+     * An update is flushed for both its previous and its current user, even when they are the same.
+     *
+     * @param previousUserId   the ID of the user owning the todo item before the update
+     * @param previousComplete the completion status before the update
+     * @param previousCategory the category before the update
+     * @param previousStore    the store before the update
+     * @param previousQuantity the quantity before the update
+     * @param item             the todo item updated
+     */
+    void updated(Long previousUserId, Boolean previousComplete, String previousCategory, String previousStore,
+            Integer previousQuantity, TodoItem item) {
+        GroupKey previous = new GroupKey(Boolean.TRUE.equals(previousComplete), previousCategory, previousStore);
+        long previousAmount = previousQuantity == null ? 0 : previousQuantity;
+        settle(previousUserId, userStats -> userStats.add(previous, -1, -previousAmount));
+        inserted(item);
+    }
+
+    /**
+     * Discounts a committed deleted todo item.
+     *
+     * @param item the todo item deleted
+     */
+    void deleted(TodoItem item) {
+        settle(item.getUser().getId(), userStats -> userStats.add(key(item), -1, -quantity(item)));
+    }
+
+    /**
+     * Stops tracking a flushed write without counting it, because it was rolled back or can't be counted.
+     *
+     * @param userId the ID of the user owning the todo item
+     */
+    void settled(Long userId) {
+        settle(userId, null);
+    }
+
+    /**
+     * Drops the statistics of a user after a change not seen as entity events, such as a bulk statement.
+     * Inside a transaction they are dropped once it commits. They are rebuilt on the next read.
+     *
+     * @param userId the ID of the user whose todo items changed
+     */
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(userId);
+                }
+            });
+        } else {
+            drop(userId);
+        }
+    }
+
+    /**
+     * Recounts the statistics of every user who has them from the database, one user at a time,
+     * so no read pays for the recount afterwards.
+     */
+    @Scheduled(cron = "${todoapp.stats.rebuild-cron:-}")
+    public void rebuild() {
+        List<Long> cached = states.entrySet().stream()
+                .filter(entry -> entry.getValue().stats != null)
+                .map(Map.Entry::getKey)
+                .toList();
+        log.info("Rebuilding todo item statistics of {} users", cached.size());
+        for (Long userId : cached) {
+            drop(userId);
+            get(userId);
+        }
+    }
+
+    private void settle(Long userId, Consumer<UserStats> delta) {
+        states.computeIfPresent(userId, (id, state) -> {
+            if (state.writes > 0) {
+                state.writes--;
+            }
+            if (state.stats != null && delta != null) {
+                delta.accept(state.stats);
+            }
+            return state.isIdle() ? null : state;
+        });
+    }
+
+    private void drop(Long userId) {
+        states.computeIfPresent(userId, (id, state) -> {
+            state.stats = null;
+            // A load running now may have read the table before the change
+            state.generation++;
+            return state.isIdle() ? null : state;
+        });
+    }
+
+    private UserStats load(Long userId) {
+        UserStats userStats = new UserStats();
+        for (TodoItemStatsGroup group : todoItemRepository.countGroupsByUserId(userId)) {
+            userStats.add(new GroupKey(Boolean.TRUE.equals(group.isComplete()), group.itemCategory(),
+                    group.storeName()), group.count(), group.quantity());
+        }
+        return userStats;
+    }
+
+    private static GroupKey key(TodoItem item) {
+        return new GroupKey(Boolean.TRUE.equals(item.getIsComplete()), item.getItemCategory(), item.getStoreName());
+    }
+
+    private static long quantity(TodoItem item) {
+        return item.getQuantity() == null ? 0 : item.getQuantity();
+    }
+
+    /**
+     * Statistics of one user, if kept, with the writes and loads in flight for them.
+     * Only changed inside {@link ConcurrentHashMap#compute}.
+     */
+    private static class UserState {
+
+        private volatile UserStats stats;
+        private int writes;
+        private int loads;
+        private long generation;
+
+        boolean isIdle() {
+            return stats == null && writes == 0 && loads == 0;
+        }
+    }
+
+    private record GroupKey(boolean isComplete, String itemCategory, String storeName) {
+    }
+
+    /**
+     * Counts of one user. Updates and snapshots are synchronized, groups are few per user.
+     */
+    private static class UserStats {
+
+        private final Map<GroupKey, long[]> groups = new HashMap<>();
+        private long complete;
+        private long incomplete;
+        private long quantity;
+
+        synchronized UserStats add(GroupKey key, long count, long amount) {
+            long[] totals = groups.computeIfAbsent(key, k -> new long[2]);
+            totals[0] += count;
+            totals[1] += amount;
+            if (totals[0] <= 0) {
+                groups.remove(key);
+            }
+            if (key.isComplete()) {
+                complete += count;
+            } else {
+                incomplete += count;
+            }
+            quantity += amount;
+            return this;
+        }
+
+        synchronized TodoItemStats snapshot() {
+            List<TodoItemStatsGroup> list = new ArrayList<>(groups.size());
+            groups.forEach((key, totals) -> list.add(new TodoItemStatsGroup(key.isComplete(), key.itemCategory(),
+                    key.storeName(), totals[0], totals[1])));
+            return new TodoItemStats(complete, incomplete, quantity, list);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.todoapp.models.AuthenticatedUser;
 import com.example.todoapp.models.Users;
 import com.example.todoapp.repositories.UserRepository;
 
@@ -31,11 +32,8 @@ public class UserDetailsImp implements UserDetailsService {
             throw new UsernameNotFoundException("User not found with username: " + username);
         }
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getAuthorities())
-                .build();
+        // Keep the user ID on the principal, so requests don't need to look the user up again
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.getAuthorities());
     }
 
 }
\ No newline at end of file
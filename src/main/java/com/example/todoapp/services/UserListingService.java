@@ -0,0 +1,70 @@
+package com.example.todoapp.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.todoapp.dto.UserResponse;
+import com.example.todoapp.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+@Service
+public class UserListingService {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userWriter;
+
+    public UserListingService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        // Flushed as the generator's buffer fills, not after every user
+        this.userWriter = objectMapper.writerFor(UserResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes one page of users as a JSON object, {@code {"page":0,"size":50,"content":[...],"hasNext":true}},
+     * user by user as they are read from the database, so a large page is never held in memory.
+     * One more user than the page size is read to tell whether a next page exists, instead of counting them all.
+     *
+     * @param pageable       the page to write, sorted by ID, name or username
+     * @param withTodoCounts whether to include the number of todo items of each user
+     * @param output         the stream to write to, left open
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public void writePage(Pageable pageable, boolean withTodoCounts, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeNumberField("page", pageable.getPageNumber());
+        generator.writeNumberField("size", pageable.getPageSize());
+        generator.writeArrayFieldStart("content");
+        boolean hasNext = false;
+        try (Stream<UserResponse> users = userRepository.streamResponses(withTodoCounts, pageable.getSort(),
+                pageable.getOffset(), pageable.getPageSize() + 1)) {
+            Iterator<UserResponse> iterator = users.iterator();
+            for (int written = 0; iterator.hasNext(); written++) {
+                UserResponse user = iterator.next();
+                if (written == pageable.getPageSize()) {
+                    hasNext = true;
+                    break;
+                }
+                userWriter.writeValue(generator, user);
+            }
+        }
+        generator.writeEndArray();
+        generator.writeBooleanField("hasNext", hasNext);
+        generator.writeEndObject();
+        generator.flush();
+    }
+}
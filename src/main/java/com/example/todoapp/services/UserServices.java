@@ -1,26 +1,34 @@
 package com.example.todoapp.services;
 
+import com.example.todoapp.dto.UserResponse;
 import com.example.todoapp.models.Users;
-import java.util.List;
+import java.io.IOException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 public interface UserServices {
 
     /**
-     * Retrieves a list of all Users.
+     * Writes one page of Users to the response.
      *
-     * @return a list of all Users
+     * @param pageable         the page to retrieve, with its size and order
+     * @param includeTodoCount whether to include the number of todo items of each User
+     * @param response         the response to write the page to
+     * @throws IOException if writing the response fails
      */
-    public List<Users> findAll();
+    public void findAll(Pageable pageable, boolean includeTodoCount, HttpServletResponse response) throws IOException;
     /**
      * Creates a new User.
      *
      * @param user the User object to be created
      * @return a ResponseEntity containing the created User and an appropriate HTTP status code
      */
-    public ResponseEntity<Users> createUser(@RequestBody Users user);
+    public ResponseEntity<UserResponse> createUser(@RequestBody Users user);
     /**
      * Updates an existing User with the specified ID.
      *
@@ -29,7 +37,7 @@ public interface UserServices {
      * @return a ResponseEntity containing the updated User and an appropriate HTTP status code,
      *         or an appropriate error response if the User was not found
      */
-    public ResponseEntity<Users> updateUser(@PathVariable Long id, @RequestBody Users bodyUser);
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @RequestBody Users bodyUser);
     /**
      * Deletes the User with the specified ID.
      *
@@ -41,10 +49,14 @@ public interface UserServices {
     /**
      * Retrieves the User with the specified ID.
      *
-     * @param id the ID of the User to be retrieved
+     * @param id               the ID of the User to be retrieved
+     * @param includeTodoCount whether to include the number of todo items of the User
+     * @param request          the current request, used to answer conditional GETs
      * @return a ResponseEntity containing the retrieved User and an appropriate HTTP status code,
-     *         or an appropriate error response if the User was not found
+     *         an appropriate error response if the User was not found,
+     *         or null if the client's copy is still current
      */
-    public ResponseEntity<Users> findById(@PathVariable Long id);
+    public ResponseEntity<UserResponse> findById(@PathVariable Long id, boolean includeTodoCount,
+            ServletWebRequest request);
 
 }
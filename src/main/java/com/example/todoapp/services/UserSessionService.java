@@ -0,0 +1,38 @@
+package com.example.todoapp.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.stereotype.Service;
+
+import com.example.todoapp.models.AuthenticatedUser;
+
+@Service
+public class UserSessionService {
+
+    private final SessionRegistry sessionRegistry;
+    private final ObjectProvider<AuthCookieService> authCookieService;
+
+    public UserSessionService(SessionRegistry sessionRegistry, ObjectProvider<AuthCookieService> authCookieService) {
+        this.sessionRegistry = sessionRegistry;
+        this.authCookieService = authCookieService;
+    }
+
+    /**
+     * Expires every session of a user, so the principal cached in them is dropped
+     * and the user has to sign in again with the current data.
+     * In stateless sign-in mode, revokes every sign-in cookie of the user instead.
+     *
+     * @param userId the ID of the user whose sessions are expired
+     */
+    public void expireSessions(Long userId) {
+        authCookieService.ifAvailable(service -> service.revokeUser(userId));
+        for (Object principal : sessionRegistry.getAllPrincipals()) {
+            if (principal instanceof AuthenticatedUser user && user.getId().equals(userId)) {
+                for (SessionInformation session : sessionRegistry.getAllSessions(principal, false)) {
+                    session.expireNow();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.todoapp.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.todoapp.models.UserVersion;
+
+/**
+ * Keeps a version per user that changes whenever the user or one of their todo items is written,
+ * so pages and API responses can be revalidated with ETag / Last-Modified without querying the database.
+ *
+ * <p>By default versions live in memory; they start from the startup time, so a restart invalidates every
+ * validator handed out before it. That only holds while one node serves a user. With
+ * {@code todoapp.shared-versions.enabled}, on by default in the stateless sign-in mode, every write also
+ * increments the user's row in {@link UserVersion} within its own transaction, and versions are read from
+ * that row. Each node remembers which shared version its own caches of a user ({@link TodoItemStatsService},
+ * {@link TodoItemSearchService}) have followed; when a read finds that another node wrote since, the
+ * listeners registered with {@link #onMissedWrites(Consumer)} drop or rebuild what they keep of that user.
+ */
+@Service
+public class UserVersionService {
+
+    private static final String INCREMENT =
+            "UPDATE user_versions SET counter = counter + 1, modified_at = ? WHERE user_id = ?";
+
+    private final Instant startedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>();
+    // The shared version each user's node-local caches are up to date with
+    private final Map<Long, Long> followed = new ConcurrentHashMap<>();
+    private final List<Consumer<Long>> missedWritesListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Long>> writeListeners = new CopyOnWriteArrayList<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final boolean shared;
+
+    public UserVersionService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            @Value("${todoapp.shared-versions.enabled:false}") boolean shared) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Shared versions are read from the primary database, outside any read-only transaction
+        this.transaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shared = shared;
+    }
+
+    /**
+     * Retrieves the current version of a user. With shared versions, also catches up the node-local caches
+     * of the user, see {@link #catchUp(Long)}.
+     *
+     * @param userId the ID of the user
+     * @return the current version of the user
+     */
+    public Version current(Long userId) {
+        if (!shared) {
+            return versions.getOrDefault(userId, new Version(0, startedAt));
+        }
+        Version version = transaction.execute(status -> jdbcTemplate.query(
+                "SELECT counter, modified_at FROM user_versions WHERE user_id = ?",
+                rs -> rs.next() ? new Version(rs.getLong(1), rs.getTimestamp(2).toInstant()) : null,
+                userId));
+        if (version == null) {
+            version = new Version(0, startedAt);
+        }
+        follow(userId, version.counter(), false);
+        return version;
+    }
+
+    /**
+     * With shared versions, reads the user's version and, if other nodes wrote the user's data since this node's
+     * caches last followed it, tells the listeners to drop it. Does nothing otherwise.
+     *
+     * @param userId the ID of the user about to be read from a node-local cache
+     */
+    public void catchUp(Long userId) {
+        if (shared) {
+            current(userId);
+        }
+    }
+
+    /**
+     * Registers a node-local cache to be told about users whose data other nodes wrote.
+     *
+     * @param listener called with the ID of the user whose cached data must be dropped or rebuilt
+     */
+    public void onMissedWrites(Consumer<Long> listener) {
+        missedWritesListeners.add(listener);
+    }
+
+    /**
+     * Registers a listener told about every write once it has committed, on the thread that made it.
+     *
+     * @param listener called with the ID of the user whose data changed
+     */
+    public void onWrite(Consumer<Long> listener) {
+        writeListeners.add(listener);
+    }
+
+    /**
+     * Moves the version of a user forward. Inside a transaction the version only moves once it
+     * commits, so a concurrent reader can never pair the new version with the data before the write;
+     * the shared version is incremented within the transaction, just before it commits.
+     *
+     * @param userId the ID of the user whose data changed
+     */
+    public void bump(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                private long counter;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (shared) {
+                        counter = incrementShared(userId);
+                    }
+                }
+
+                @Override
+                public void afterCommit() {
+                    increment(userId, counter);
+                }
+            });
+        } else {
+            increment(userId, shared ? transaction.execute(status -> incrementShared(userId)) : 0);
+        }
+    }
+
+    private void increment(Long userId, long sharedCounter) {
+        writeListeners.forEach(listener -> listener.accept(userId));
+        if (shared) {
+            // The write was followed by this node's caches, any other one since they last caught up was not
+            follow(userId, sharedCounter, true);
+            return;
+        }
+        // Last-Modified has a precision of one second, the counter tells apart writes within it
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        versions.compute(userId, (id, version) -> version == null
+                ? new Version(1, now)
+                : new Version(version.counter() + 1, now));
+    }
+
+    private long incrementShared(Long userId) {
+        Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        if (jdbcTemplate.update(INCREMENT, now, userId) == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO user_versions (user_id, counter, modified_at) VALUES (?, 1, ?)",
+                        userId, now);
+                return 1;
+            } catch (DuplicateKeyException e) {
+                // Inserted by another node's first write meanwhile
+                jdbcTemplate.update(INCREMENT, now, userId);
+            }
+        }
+        // Still locked by the update, so no other write came in between
+        return jdbcTemplate.queryForObject("SELECT counter FROM user_versions WHERE user_id = ?", Long.class, userId);
+    }
+
+    /**
+     * Records that the caches of a user are up to date with a shared version, and tells the listeners
+     * if they missed writes to get there.
+     *
+     * @param userId   the ID of the user
+     * @param counter  the shared version reached
+     * @param ownWrite whether this node made the write that reached it, so its caches followed it
+     */
+    private void follow(Long userId, long counter, boolean ownWrite) {
+        long behind = ownWrite ? counter - 1 : counter;
+        boolean[] missed = new boolean[1];
+        followed.compute(userId, (id, previous) -> {
+            missed[0] = previous == null || previous < behind;
+            return previous == null ? counter : Math.max(previous, counter);
+        });
+        if (missed[0]) {
+            missedWritesListeners.forEach(listener -> listener.accept(userId));
+        }
+    }
+
+    /**
+     * A version of a user's data.
+     *
+     * @param counter      the number of writes since startup, or ever with shared versions
+     * @param lastModified the time of the last write, or the startup time if there was none
+     */
+    public record Version(long counter, Instant lastModified) {
+
+        /**
+         * Builds a weak ETag for a resource of the user at this version.
+         *
+         * @param scope what the resource depends on besides the version, such as the user ID
+         * @return the ETag value, quoted
+         */
+        public String eTag(String scope) {
+            return "W/\"" + scope + "-" + lastModified.getEpochSecond() + "-" + counter + "\"";
+        }
+    }
+}
@@ -0,0 +1,112 @@
+// Patches the todo item table in place: creating, editing, toggling and deleting an item fetch or drop
+// only its row (see TodoFragmentController and the /api/todos endpoints) instead of reloading the list.
+// Without JavaScript the links and forms of the rows post to the regular endpoints, which redirect to the list.
+(function () {
+    'use strict';
+
+    var csrfToken = document.querySelector('meta[name="_csrf"]').content;
+    var csrfHeader = document.querySelector('meta[name="_csrf_header"]').content;
+    var rows = document.getElementById('todo-rows');
+    var errors = document.getElementById('todo-errors');
+
+    function send(method, url, body) {
+        var headers = {};
+        headers[csrfHeader] = csrfToken;
+        return fetch(url, { method: method, headers: headers, body: body, credentials: 'same-origin' })
+            .then(function (response) {
+                if (response.status === 400) {
+                    return response.text().then(function (html) {
+                        errors.replaceChildren(parse(html));
+                        return Promise.reject(null);
+                    });
+                }
+                if (!response.ok || response.redirected) {
+                    return Promise.reject(response);
+                }
+                errors.replaceChildren();
+                return response.text();
+            })
+            .catch(function (failure) {
+                // Anything else unexpected, e.g. the item was deleted elsewhere: fall back to the whole page
+                if (failure !== null) {
+                    window.location.reload();
+                }
+                return Promise.reject(failure);
+            });
+    }
+
+    function parse(html) {
+        var template = document.createElement('template');
+        template.innerHTML = html.trim();
+        return template.content.firstElementChild;
+    }
+
+    function fields(container) {
+        var params = new URLSearchParams();
+        container.querySelectorAll('input[name]').forEach(function (input) {
+            if (input.type !== 'checkbox' || input.checked) {
+                params.append(input.name, input.value);
+            }
+        });
+        return params;
+    }
+
+    function replaceRow(row, url, method, body) {
+        send(method, url, body).then(function (html) {
+            row.replaceWith(parse(html));
+        }, function () {});
+    }
+
+    document.getElementById('create-form').addEventListener('submit', function (event) {
+        event.preventDefault();
+        var form = event.target;
+        send('POST', '/fragments/todo', fields(form)).then(function (html) {
+            // The unfiltered list is sorted oldest first, so the new item goes last on its last page;
+            // searches, filters and other pages may not show it, or elsewhere
+            if (rows.dataset.showsCreated === 'true') {
+                rows.append(parse(html));
+            } else {
+                var notice = document.createElement('div');
+                notice.className = 'alert alert-success';
+                notice.textContent = 'Item adicionado. Ele não aparece nesta lista: veja a última página da lista completa.';
+                errors.replaceChildren(notice);
+            }
+            form.reset();
+        }, function () {});
+    });
+
+    rows.addEventListener('submit', function (event) {
+        var form = event.target.closest('form[data-action="toggle"]');
+        if (form) {
+            event.preventDefault();
+            var row = form.closest('tr');
+            replaceRow(row, '/fragments/todo/' + row.id.substring('todo-'.length) + '/toggle', 'POST');
+        }
+    });
+
+    rows.addEventListener('click', function (event) {
+        var action = event.target.closest('[data-action]');
+        if (!action || action.dataset.action === 'toggle') {
+            return;
+        }
+        event.preventDefault();
+        var row = action.closest('tr');
+        var id = row.id.substring('todo-'.length);
+        switch (action.dataset.action) {
+            case 'edit':
+                replaceRow(row, '/fragments/todo/' + id + '/edit', 'GET');
+                break;
+            case 'cancel':
+                replaceRow(row, '/fragments/todo/' + id, 'GET');
+                break;
+            case 'save':
+                replaceRow(row, '/fragments/todo/' + id, 'POST', fields(row));
+                break;
+            case 'delete':
+                send('DELETE', '/api/todos/' + id).then(function () {
+                    row.remove();
+                }, function () {});
+                break;
+        }
+    });
+})();
@@ -0,0 +1,92 @@
+package com.example.todoapp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.repositories.UserRepository;
+import com.example.todoapp.services.TodoItemService;
+
+/**
+ * Stores the users and todo items the tests start from; add it with {@code @Import(TestFixtures.class)}.
+ * Every user gets a unique username and the password {@value #PASSWORD}.
+ */
+@TestComponent
+public class TestFixtures {
+
+    public static final String PASSWORD = "secret";
+
+    private final UserRepository userRepository;
+    private final TodoItemService todoItemService;
+    private final PasswordEncoder passwordEncoder;
+
+    public TestFixtures(UserRepository userRepository, TodoItemService todoItemService,
+            PasswordEncoder passwordEncoder) {
+        this.userRepository = userRepository;
+        this.todoItemService = todoItemService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    /**
+     * Stores a user whose password is stored as is, for tests that authenticate with {@link #principal(Users)}.
+     *
+     * @param name  the name of the user, also the prefix of the username
+     * @param items the todo items of the user
+     * @return the stored user
+     */
+    public Users createUser(String name, TodoItemRequest... items) {
+        return save(name, PASSWORD, List.of(items));
+    }
+
+    /**
+     * Stores a user with {@code count} todo items, named "Item 0", "Item 1"..., every other one complete.
+     *
+     * @param name  the name of the user, also the prefix of the username
+     * @param count the number of todo items
+     * @return the stored user
+     */
+    public Users createUser(String name, int count) {
+        List<TodoItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new TodoItemRequest(null, "Item " + i, i % 2 == 0, "Mercearia", 1, "Mercado"));
+        }
+        return save(name, PASSWORD, items);
+    }
+
+    /**
+     * Stores a user with an encoded password, for tests that sign in through the form.
+     *
+     * @param name the name of the user, also the prefix of the username
+     * @return the stored user
+     */
+    public Users createSignInUser(String name) {
+        return save(name, passwordEncoder.encode(PASSWORD), List.of());
+    }
+
+    /**
+     * Builds the principal of a user, as if they had signed in.
+     *
+     * @param user the user
+     * @return the principal of the user
+     */
+    public static AuthenticatedUser principal(Users user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), List.of());
+    }
+
+    private Users save(String name, String password, List<TodoItemRequest> items) {
+        Users user = new Users();
+        user.setName(name);
+        user.setUsername(name + "-" + System.nanoTime());
+        user.setPassword(password);
+        user = userRepository.save(user);
+        if (!items.isEmpty()) {
+            todoItemService.saveAll(user.getId(), items);
+        }
+        return user;
+    }
+}
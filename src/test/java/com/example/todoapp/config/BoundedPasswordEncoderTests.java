@@ -0,0 +1,79 @@
+package com.example.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    private final BoundedPasswordEncoder encoder =
+            new BoundedPasswordEncoder(blockingEncoder, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void rejectsWhenThreadAndQueueAreFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (encoder.getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.encode("third")).isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.counter("password.hashing.rejected").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}second");
+        assertThat(meterRegistry.get("password.hashing.latency").tag("operation", "encode").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWhenResultTakesLongerThanTimeout() {
+        BoundedPasswordEncoder impatient =
+                new BoundedPasswordEncoder(blockingEncoder, 1, 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        try {
+            assertThatThrownBy(() -> impatient.matches("password", "{hashed}password"))
+                    .isInstanceOf(PasswordHashingRejectedException.class);
+        } finally {
+            impatient.shutdown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.models.Users;
+
+@SpringBootTest(properties = {
+        "todoapp.slow-query.threshold=1ns",
+        "todoapp.metrics.hibernate-statistics=true" })
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ExtendWith(OutputCaptureExtension.class)
+@Import(TestFixtures.class)
+class MetricsConfigTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void requestsReportTheirStatementsAndEverythingIsScrapedLocally(CapturedOutput output) throws Exception {
+        Users user = fixtures.createUser("metrics");
+        AuthenticatedUser principal = TestFixtures.principal(user);
+
+        String statements = mockMvc.perform(get("/").with(user(principal)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(SqlStatementCountFilter.HEADER);
+        assertThat(Integer.parseInt(statements)).isPositive();
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape).contains(
+                "spring_data_repository_invocations_seconds_count{exception=\"None\",method=\"save\","
+                        + "repository=\"UserRepository\"",
+                "jdbc_statements_seconds_count",
+                "http_server_requests_sql_statements_count{method=\"GET\",uri=\"/\"",
+                "thymeleaf_render_seconds_count{template=\"index\"",
+                "hibernate_entities_inserts_total",
+                "hibernate_flushes_total");
+
+        // The slow query log shows the statement as prepared, never the bound user name
+        assertThat(output).contains("Slow statement took").doesNotContain("'" + user.getUsername() + "'");
+    }
+
+    @Test
+    void actuatorIsOnlyReachableLocally() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+            request.setRemoteAddr("192.0.2.10");
+            return request;
+        })).andExpect(status().is3xxRedirection());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.models.Users;
+
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest(properties = {
+        "todoapp.read-replicas.enabled=true",
+        "todoapp.read-replicas.urls=" + ReadReplicaConfigTests.REPLICA_URL,
+        "todoapp.read-replicas.sticky-window=1h" })
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ReadReplicaConfigTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:todoapp-replica-tests;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private DataSource dataSource;
+
+    private Users user;
+
+    /**
+     * Copies the schema and the user to the replica, which then gets an item the primary doesn't have,
+     * as if it had replicated a write the primary lost since.
+     */
+    @BeforeEach
+    void createReplica() throws SQLException {
+        user = fixtures.createUser("replica");
+
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : jdbcTemplate.queryForList("SCRIPT NODATA", String.class)) {
+                statement.execute(sql);
+            }
+            statement.execute("INSERT INTO users (id, name, username, password) VALUES (" + user.getId()
+                    + ", 'replica', '" + user.getUsername() + "', 'secret')");
+            statement.execute("INSERT INTO todo_items (id, description, is_complete, created_at, user_id)"
+                    + " VALUES (900001, 'Só na réplica', false, CURRENT_TIMESTAMP, " + user.getId() + ")");
+        }
+    }
+
+    @Test
+    void readsGoToTheReplicaUntilTheClientWrites() throws Exception {
+        AuthenticatedUser principal = TestFixtures.principal(user);
+        assertThat(page(principal, null)).contains("Só na réplica");
+
+        Cookie lastWrite = mockMvc.perform(post("/api/todos").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Arroz\"}").with(csrf()).with(user(principal)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie(LastWriteCookie.NAME);
+        assertThat(lastWrite).isNotNull();
+
+        assertThat(page(principal, lastWrite)).contains("Arroz").doesNotContain("Só na réplica");
+        // A client that doesn't send the cookie back isn't told apart from one that never wrote
+        assertThat(page(principal, null)).contains("Só na réplica");
+    }
+
+    @Test
+    void readsAfterAWriteStayOnThePrimaryOfAnotherNode() throws Exception {
+        AuthenticatedUser principal = TestFixtures.principal(user);
+        Cookie lastWrite = mockMvc.perform(post("/api/todos").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Arroz\"}").with(csrf()).with(user(principal)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie(LastWriteCookie.NAME);
+
+        // A node that served none of the client's requests so far
+        DataSource primary = ((AbstractRoutingDataSource) dataSource.unwrap(ReadReplicaDataSource.class)
+                .getTargetDataSource()).getResolvedDefaultDataSource();
+        ReadReplicaDataSource otherNode = new ReadReplicaDataSource(primary,
+                List.of(new DriverManagerDataSource(REPLICA_URL, "sa", "")), new LastWriteCookie(Duration.ofHours(1)));
+
+        assertThat(descriptions(otherNode, lastWrite)).containsExactly("Arroz");
+        assertThat(descriptions(otherNode, null)).containsExactly("Só na réplica");
+    }
+
+    private String page(AuthenticatedUser principal, Cookie lastWrite) throws Exception {
+        MockHttpServletRequestBuilder request = get("/").with(user(principal));
+        if (lastWrite != null) {
+            request.cookie(lastWrite);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Reads the user's items through a data source in a read-only transaction, as a request sending the given
+     * cookie, if any.
+     */
+    private List<String> descriptions(DataSource dataSource, Cookie lastWrite) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (lastWrite != null) {
+            request.setCookies(lastWrite);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            transaction.setReadOnly(true);
+            return transaction.execute(status -> new JdbcTemplate(dataSource).queryForList(
+                    "SELECT description FROM todo_items WHERE user_id = ?", String.class, user.getId()));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.repositories.UserRepository;
+import com.example.todoapp.services.TodoItemService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "todoapp.second-level-cache.enabled=true",
+        "todoapp.metrics.hibernate-statistics=true" })
+@AutoConfigureObservability
+@Import(TestFixtures.class)
+class SecondLevelCacheConfigTests {
+
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Users user;
+    private Long id;
+    private Statistics statistics;
+
+    @BeforeEach
+    void createItem() {
+        user = fixtures.createUser("cache", new TodoItemRequest(null, "Arroz", false, "mercado", 1, null));
+        id = todoItemService.findByUser(user).get(0).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void repeatedLookupsByIdAreServedFromTheCache() {
+        assertThat(todoItemService.getById(id)).isPresent();
+        assertThat(todoItemService.getById(id)).isPresent();
+        assertThat(userRepository.findById(user.getId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(3);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", TodoItem.class.getName()).tag("result", "hit")
+                .functionCounter().count()).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", Users.class.getName()).functionCounter())
+                .isNotNull();
+    }
+
+    @Test
+    void writesThroughTheServiceAreSeenByLaterLookups() {
+        TodoItem item = todoItemService.getById(id).orElseThrow();
+        item.setDescription("Feijão");
+        todoItemService.save(item);
+        assertThat(todoItemService.getById(id).orElseThrow().getDescription()).isEqualTo("Feijão");
+
+        // Bulk statements bypass the entities, Hibernate empties the region instead
+        todoItemService.completeAll(user.getId(), List.of(id));
+        assertThat(todoItemService.getById(id).orElseThrow().getIsComplete()).isTrue();
+
+        todoItemService.deleteAll(user.getId(), List.of(id));
+        assertThat(todoItemService.getById(id)).isEmpty();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.repositories.TokenRevocationRepository;
+import com.example.todoapp.services.AuthCookieService;
+
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest(properties = {
+        "todoapp.stateless-auth.enabled=true",
+        "todoapp.stateless-auth.keys=" + StatelessAuthTests.OLD_KEY })
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class StatelessAuthTests {
+
+    static final String OLD_KEY = "old:vLbcj9xCOqvcKghBLHjPyzR9GHVHjR2S2qrBjToNxgo=";
+    static final String NEW_KEY = "new:qWZDd4TN9yE/DB6vb9CJF+0gfDY+3ZGXYfURvXVbyeY=";
+
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+    @Autowired
+    private AuthCookieService authCookieService;
+
+    private Users user;
+
+    @BeforeEach
+    void createUser() {
+        user = fixtures.createSignInUser("stateless");
+    }
+
+    @Test
+    void signingInIssuesACookieThatAuthenticatesWithoutASession() throws Exception {
+        Cookie cookie = signIn();
+
+        MvcResult index = mockMvc.perform(get("/").cookie(cookie))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(index.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void tamperedCookiesAreRejectedAndCleared() throws Exception {
+        Cookie cookie = signIn();
+        String[] parts = cookie.getValue().split("\\.");
+        Cookie tampered = new Cookie(AuthCookieService.COOKIE, parts[0] + "." + parts[1] + "x." + parts[2]);
+
+        MvcResult index = mockMvc.perform(get("/").cookie(tampered))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        assertThat(index.getResponse().getCookie(AuthCookieService.COOKIE).getMaxAge()).isZero();
+    }
+
+    @Test
+    void signingOutRevokesTheCookie() throws Exception {
+        Cookie cookie = signIn();
+
+        mockMvc.perform(get("/signout").cookie(cookie))
+                .andExpect(redirectedUrl("/signin"));
+        mockMvc.perform(get("/").cookie(cookie))
+                .andExpect(status().is3xxRedirection());
+
+        // Other nodes pick the revocation up from the database
+        AuthCookieService otherNode = new AuthCookieService(tokenRevocationRepository, OLD_KEY, Duration.ofHours(8));
+        assertThat(otherNode.authenticate(cookie.getValue())).isPresent();
+        otherNode.refreshRevocations();
+        assertThat(otherNode.authenticate(cookie.getValue())).isEmpty();
+
+        // Later refreshes read the revocations made since
+        Cookie next = signIn();
+        mockMvc.perform(get("/signout").cookie(next));
+        assertThat(otherNode.authenticate(next.getValue())).isPresent();
+        otherNode.refreshRevocations();
+        assertThat(otherNode.authenticate(next.getValue())).isEmpty();
+        assertThat(otherNode.authenticate(cookie.getValue())).isEmpty();
+    }
+
+    @Test
+    void changingTheUserRevokesTheirCookies() throws Exception {
+        Cookie cookie = signIn();
+
+        authCookieService.revokeUser(user.getId());
+
+        assertThat(authCookieService.authenticate(cookie.getValue())).isEmpty();
+        assertThat(authCookieService.authenticate(signIn().getValue())).isPresent();
+    }
+
+    @Test
+    void keysRotateWithoutSigningAnyoneOut() throws Exception {
+        Cookie cookie = signIn();
+
+        AuthCookieService rotated = new AuthCookieService(tokenRevocationRepository, NEW_KEY + "," + OLD_KEY,
+                Duration.ofHours(8));
+        assertThat(rotated.authenticate(cookie.getValue())).get()
+                .satisfies(principal -> assertThat(principal.getId()).isEqualTo(user.getId()));
+
+        AuthCookieService retired = new AuthCookieService(tokenRevocationRepository, NEW_KEY, Duration.ofHours(8));
+        assertThat(retired.authenticate(cookie.getValue())).isEmpty();
+    }
+
+    /**
+     * Signs in through the form like a browser, with the CSRF token of the form and its cookie;
+     * the csrf() request post processor would keep the token in a session.
+     */
+    private Cookie signIn() throws Exception {
+        MvcResult form = mockMvc.perform(get("/signin")).andReturn();
+        Matcher csrfToken = CSRF_TOKEN.matcher(form.getResponse().getContentAsString());
+        assertThat(csrfToken.find()).isTrue();
+
+        MvcResult signin = mockMvc.perform(post("/signin")
+                        .cookie(form.getResponse().getCookie("XSRF-TOKEN"))
+                        .param("username", user.getUsername())
+                        .param("password", TestFixtures.PASSWORD)
+                        .param("_csrf", csrfToken.group(1)))
+                .andExpect(redirectedUrl("/"))
+                .andReturn();
+        assertThat(form.getRequest().getSession(false)).isNull();
+        assertThat(signin.getRequest().getSession(false)).isNull();
+        return signin.getResponse().getCookie(AuthCookieService.COOKIE);
+    }
+}
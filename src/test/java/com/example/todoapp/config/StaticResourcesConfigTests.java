@@ -0,0 +1,47 @@
+package com.example.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaticResourcesConfigTests {
+
+    private static final Pattern STYLESHEET = Pattern.compile(
+            "href=\"(/webjars/bootstrap/5\\.2\\.2/css/bootstrap\\.min-[0-9a-f]{32}\\.css)\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void pagesLinkFingerprintedLocalAssets() throws Exception {
+        String page = mockMvc.perform(get("/signin")).andReturn().getResponse().getContentAsString();
+
+        assertThat(page).doesNotContain("cdn.jsdelivr.net");
+        assertThat(STYLESHEET.matcher(page).find()).isTrue();
+    }
+
+    @Test
+    void fingerprintedAssetsAreImmutableAndPrecompressed() throws Exception {
+        String page = mockMvc.perform(get("/signin")).andReturn().getResponse().getContentAsString();
+        Matcher matcher = STYLESHEET.matcher(page);
+        assertThat(matcher.find()).isTrue();
+
+        mockMvc.perform(get(matcher.group(1)).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.dialect.DatabaseVersion;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Upgrades of a database whose todo items took their IDs from an auto-increment column.
+ */
+class TodoItemSequenceInitializerTests {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createLegacyItems() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:sequence-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE todo_items (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("INSERT INTO todo_items VALUES (1), (2), (120)");
+    }
+
+    @Test
+    void movesANewSequenceTablePastTheStoredIds() {
+        // As created by ddl-auto on MySQL
+        jdbcTemplate.execute("CREATE TABLE todo_items_seq (next_val BIGINT)");
+        jdbcTemplate.execute("INSERT INTO todo_items_seq VALUES (1)");
+
+        TodoItemSequenceInitializer.moveSequencePastStoredIds(jdbcTemplate, new MySQLDialect());
+        assertThat(nextVal()).isEqualTo(170);
+
+        // A sequence already ahead, e.g. moved by another node, is left alone
+        jdbcTemplate.update("UPDATE todo_items_seq SET next_val = 500");
+        TodoItemSequenceInitializer.moveSequencePastStoredIds(jdbcTemplate, new MySQLDialect());
+        assertThat(nextVal()).isEqualTo(500);
+    }
+
+    @Test
+    void restartsANewNativeSequencePastTheStoredIds() {
+        jdbcTemplate.execute("CREATE SEQUENCE todo_items_seq START WITH 1 INCREMENT BY 50");
+
+        TodoItemSequenceInitializer.moveSequencePastStoredIds(jdbcTemplate, new H2Dialect(DatabaseVersion.make(2, 1)));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR todo_items_seq", Long.class)).isEqualTo(170);
+    }
+
+    private long nextVal() {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM todo_items_seq", Long.class);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.todoapp.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.services.TodoItemService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class HomeControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Users user;
+    private AuthenticatedUser principal;
+    private final MockHttpSession session = new MockHttpSession();
+
+    @BeforeEach
+    void createUser() {
+        user = fixtures.createUser("home", new TodoItemRequest(null, "Arroz", false, null, 1, null));
+        principal = TestFixtures.principal(user);
+    }
+
+    @Test
+    void indexIsNotModifiedUntilTheUserWrites() throws Exception {
+        String eTag = mockMvc.perform(get("/").with(user(principal)).session(session))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/").with(user(principal)).session(session).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        todoItemService.completeAll(user.getId(), List.of(todoItemService.findByUser(user).get(0).getId()));
+
+        mockMvc.perform(get("/").with(user(principal)).session(session).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void indexIsNotSharedAcrossSessions() throws Exception {
+        String eTag = mockMvc.perform(get("/").with(user(principal)).session(session))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/").with(user(principal)).session(new MockHttpSession())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchRendersTheMatchingItems() throws Exception {
+        mockMvc.perform(get("/search").param("q", "arr").with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Arroz")))
+                // Sorted newest first, so items created from it aren't appended
+                .andExpect(content().string(not(containsString("data-shows-created"))));
+    }
+
+    @Test
+    void pagesFollowTheSeekOrderBothWays() throws Exception {
+        Users paged = fixtures.createUser("paging", 7);
+        AuthenticatedUser pagedPrincipal = TestFixtures.principal(paged);
+        List<Long> ids = todoItemService.findByUser(paged).stream().map(TodoItem::getId).sorted().toList();
+        // All created at the same instant but the last two, created earlier: ties are broken by ID
+        Instant createdAt = Instant.parse("2024-01-01T10:00:00Z");
+        jdbcTemplate.update("UPDATE todo_items SET created_at = ? WHERE user_id = ?",
+                Timestamp.from(createdAt), paged.getId());
+        jdbcTemplate.update("UPDATE todo_items SET created_at = ? WHERE id IN (?, ?)",
+                Timestamp.from(createdAt.minusSeconds(3600)), ids.get(5), ids.get(6));
+
+        ModelAndView first = page(pagedPrincipal, "/?size=3");
+        ModelAndView second = page(pagedPrincipal, (String) first.getModel().get("nextPageUrl"));
+        ModelAndView last = page(pagedPrincipal, (String) second.getModel().get("nextPageUrl"));
+
+        assertThat(first.getModel()).doesNotContainKey("previousPageUrl");
+        assertThat(ids(first)).containsExactly(ids.get(5), ids.get(6), ids.get(0));
+        assertThat(ids(second)).containsExactly(ids.get(1), ids.get(2), ids.get(3));
+        assertThat(ids(last)).containsExactly(ids.get(4));
+        assertThat(last.getModel()).doesNotContainKey("nextPageUrl");
+        // Only the last page shows the items created from it
+        assertThat(first.getModel()).containsEntry("showsCreatedItems", false);
+        assertThat(last.getModel()).containsEntry("showsCreatedItems", true);
+
+        ModelAndView backToSecond = page(pagedPrincipal, (String) last.getModel().get("previousPageUrl"));
+        assertThat(ids(backToSecond)).isEqualTo(ids(second));
+        ModelAndView backToFirst = page(pagedPrincipal, (String) backToSecond.getModel().get("previousPageUrl"));
+        assertThat(ids(backToFirst)).isEqualTo(ids(first));
+        assertThat(backToFirst.getModel()).doesNotContainKey("previousPageUrl").containsKey("nextPageUrl");
+    }
+
+    @Test
+    void pageSizesAreClamped() throws Exception {
+        AuthenticatedUser many = TestFixtures.principal(fixtures.createUser("paging", 201));
+
+        assertThat(ids(page(many, "/?size=1000"))).hasSize(200);
+        assertThat(ids(page(many, "/?size=0"))).hasSize(1);
+    }
+
+    @Test
+    void tamperedCursorsAreBadRequests() throws Exception {
+        // Not Base64, and a valid Base64 cursor cut short of its ID
+        mockMvc.perform(get("/").param("after", "not a cursor").with(user(principal)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/filter").param("startDate", "2000-01-01").param("endDate", "2100-01-01")
+                        .param("before", "MTox").with(user(principal)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ModelAndView page(AuthenticatedUser pagePrincipal, String url) throws Exception {
+        return mockMvc.perform(get(URI.create(url)).with(user(pagePrincipal)))
+                .andExpect(status().isOk())
+                .andReturn().getModelAndView();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(ModelAndView page) {
+        return ((List<TodoItemView>) page.getModel().get("todoItems")).stream().map(TodoItemView::id).toList();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.todoapp.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.config.SqlStatementCountFilter;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.repositories.UserRepository;
+import com.example.todoapp.services.TodoItemService;
+
+/**
+ * Guards every endpoint against N+1 queries: each one must run at most a fixed number of SQL statements,
+ * however many todo items and users are stored. Statements are counted by the instrumented DataSource
+ * and read from the {@value SqlStatementCountFilter#HEADER} header; a JDBC batch counts as one statement.
+ * The seeded sizes cross both the default page size and the JDBC batch size.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class SqlStatementCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 60, 240 })
+    void listingsRunAFixedNumberOfStatements(int size) throws Exception {
+        AuthenticatedUser principal = seed(size, 0);
+
+        assertStatements(get("/").with(user(principal)), 1);
+        assertStatements(get("/").param("size", "500").with(user(principal)), 1);
+        assertStatements(get("/filter").param("startDate", "2000-01-01").param("endDate", "2100-01-01")
+                .param("completedCheckbox", "true").with(user(principal)), 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 60, 240 })
+    void todoFormsRunAFixedNumberOfStatements(int size) throws Exception {
+        AuthenticatedUser principal = seed(size, 0);
+        Long id = todoItemService.findByUser(userRepository.getReferenceById(principal.getId())).get(0).getId();
+
+        // Creating may also fetch the next block of sequence values
+        assertStatements(post("/todo").param("description", "Feijão").with(csrf()).with(user(principal)), 2);
+        assertStatements(get("/edit/{id}", id).with(user(principal)), 1);
+        assertStatements(post("/todo/{id}", id).param("description", "Arroz").param("isComplete", "true")
+                .with(csrf()).with(user(principal)), 2);
+        assertStatements(post("/todo/{id}/toggle", id).with(csrf()).with(user(principal)), 1);
+        assertStatements(get("/delete/{id}", id).with(user(principal)), 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 60, 240 })
+    void todoRowFragmentsAndApiRunAFixedNumberOfStatements(int size) throws Exception {
+        AuthenticatedUser principal = seed(size, 0);
+        Long id = todoItemService.findByUser(userRepository.getReferenceById(principal.getId())).get(0).getId();
+
+        assertStatements(post("/fragments/todo").param("description", "Feijão").with(csrf()).with(user(principal)), 2);
+        assertStatements(get("/fragments/todo/{id}/edit", id).with(user(principal)), 1);
+        assertStatements(post("/fragments/todo/{id}", id).param("description", "Arroz").param("isComplete", "true")
+                .with(csrf()).with(user(principal)), 2);
+        assertStatements(post("/fragments/todo/{id}/toggle", id).with(csrf()).with(user(principal)), 2);
+        assertStatements(get("/fragments/todo/{id}", id).with(user(principal)), 1);
+
+        assertStatements(post("/api/todos").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"Feijão\"}").with(csrf()).with(user(principal)), 2);
+        assertStatements(get("/api/todos/{id}", id).with(user(principal)), 1);
+        assertStatements(put("/api/todos/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"Arroz\",\"isComplete\":false}").with(csrf()).with(user(principal)), 2);
+        assertStatements(post("/api/todos/{id}/toggle", id).with(csrf()).with(user(principal)), 2);
+        assertStatements(delete("/api/todos/{id}", id).with(csrf()).with(user(principal)), 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 60, 240 })
+    void userApiRunsAFixedNumberOfStatements(int size) throws Exception {
+        AuthenticatedUser principal = seed(size, size);
+        Long id = principal.getId();
+
+        assertStatements(get("/user").with(user(principal)), 1);
+        assertStatements(get("/user").param("size", "1000").param("includeTodoCount", "true")
+                .with(user(principal)), 1);
+        assertStatements(get("/user/{id}", id).with(user(principal)), 1);
+        assertStatements(get("/user/{id}", id).param("includeTodoCount", "true").with(user(principal)), 1);
+        assertStatements(post("/user/signup").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Nova\",\"username\":\"nova-" + System.nanoTime() + "\",\"password\":\"secret\"}")
+                .with(csrf()).with(user(principal)), 2);
+        assertStatements(put("/user/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Renomeada\",\"password\":\"secret\"}")
+                .with(csrf()).with(user(principal)), 2);
+        // Load the user, delete the items in bulk, load the now empty collection for the cascade, delete the user,
+        // then reload the user's search documents after commit
+        assertStatements(delete("/user/{id}", id).with(csrf()).with(user(principal)), 5);
+    }
+
+    /**
+     * Stores a user with some todo items, and other users with a few todo items each.
+     *
+     * @return the principal of the user with {@code items} todo items
+     */
+    private AuthenticatedUser seed(int items, int otherUsers) {
+        for (int i = 0; i < otherUsers; i++) {
+            fixtures.createUser("count", 2);
+        }
+        return TestFixtures.principal(fixtures.createUser("count", items));
+    }
+
+    private void assertStatements(MockHttpServletRequestBuilder request, int maximum) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        String description = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+
+        assertThat(response.getStatus()).as(description).isBetween(200, 399);
+        assertThat(response.getHeader(SqlStatementCountFilter.HEADER)).as(description).isNotNull();
+        assertThat(Integer.parseInt(response.getHeader(SqlStatementCountFilter.HEADER)))
+                .as("SQL statements run by %s", description)
+                .isLessThanOrEqualTo(maximum);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.todoapp.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemFilter;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.services.TodoItemService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class TodoFragmentControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private AuthenticatedUser principal;
+    private AuthenticatedUser other;
+    private Long id;
+
+    @BeforeEach
+    void createItem() {
+        principal = TestFixtures.principal(fixtures.createUser("fragment"));
+        other = TestFixtures.principal(fixtures.createUser("fragment"));
+        id = todoItemService.saveAll(principal.getId(),
+                List.of(new TodoItemRequest(null, "Arroz", false, "Mercearia", 1, "Mercado"))).get(0).id();
+    }
+
+    @Test
+    void indexRendersTheSameRowsAndPatchesThemInPlace() throws Exception {
+        mockMvc.perform(get("/").with(user(principal)))
+                .andExpect(content().string(containsString("<tr id=\"todo-" + id + "\"")))
+                .andExpect(content().string(containsString("name=\"_csrf_header\"")))
+                .andExpect(content().string(containsString("/static/js/todo-list-")));
+    }
+
+    @Test
+    void changesRenderOnlyTheChangedRow() throws Exception {
+        mockMvc.perform(post("/fragments/todo").param("description", "Feijão").param("quantity", "2")
+                        .with(csrf()).with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("<tr id=\"todo-")))
+                .andExpect(content().string(containsString("Feijão")))
+                .andExpect(content().string(not(containsString("Arroz"))));
+
+        mockMvc.perform(get("/fragments/todo/{id}/edit", id).with(user(principal)))
+                .andExpect(content().string(containsString("name=\"description\" value=\"Arroz\"")));
+        mockMvc.perform(post("/fragments/todo/{id}", id).param("description", "Arroz integral")
+                        .with(csrf()).with(user(principal)))
+                .andExpect(content().string(startsWith("<tr id=\"todo-" + id + "\"")))
+                .andExpect(content().string(containsString("Arroz integral")));
+        mockMvc.perform(post("/fragments/todo/{id}/toggle", id).with(csrf()).with(user(principal)))
+                .andExpect(content().string(containsString("alert-success")));
+    }
+
+    @Test
+    void invalidItemsRenderTheValidationError() throws Exception {
+        mockMvc.perform(post("/fragments/todo").param("description", " ").with(csrf()).with(user(principal)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Description is required")));
+    }
+
+    @Test
+    void apiChangesOnlyTheUsersOwnItems() throws Exception {
+        mockMvc.perform(post("/api/todos/{id}/toggle", id).with(csrf()).with(user(principal)))
+                .andExpect(jsonPath("$.isComplete").value(true));
+
+        mockMvc.perform(get("/api/todos/{id}", id).with(user(other)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/todos/{id}/toggle", id).with(csrf()).with(user(other)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/todos/{id}", id).with(csrf()).with(user(other)))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/todos").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + id + ",\"description\":\"Roubado\"}").with(csrf()).with(user(other)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/todos/{id}", id).with(csrf()).with(user(principal)))
+                .andExpect(status().isNoContent());
+        assertThat(todoItemService.getView(principal.getId(), id)).isEmpty();
+    }
+
+    @Test
+    void batchesNamingAnotherUsersItemSaveNothing() throws Exception {
+        // More items than a chunk, so the first chunks would be written before the one with the foreign ID
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < 600; i++) {
+            batch.append("{\"description\":\"Item ").append(i).append("\"},");
+        }
+        batch.append("{\"id\":").append(id).append(",\"description\":\"Roubado\"}]");
+
+        mockMvc.perform(post("/api/todos/batch").contentType(MediaType.APPLICATION_JSON).content(batch.toString())
+                        .with(csrf()).with(user(other)))
+                .andExpect(status().isNotFound());
+
+        assertThat(todoItemService.findPage(TodoItemFilter.forUser(other.getId()), null, null, 10).items()).isEmpty();
+        assertThat(todoItemService.getView(principal.getId(), id)).get()
+                .satisfies(item -> assertThat(item.description()).isEqualTo("Arroz"));
+    }
+
+    @Test
+    void exportsAndImportsStreamWithTheirOwnTimeout() throws Exception {
+        MvcResult export = mockMvc.perform(get("/api/todos/export").param("format", "ndjson").with(user(principal)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(export.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(1).toMillis());
+        String exported = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("todo-items.ndjson")))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(exported).contains("\"description\":\"Arroz\"");
+
+        MvcResult imported = mockMvc.perform(post("/api/todos/import").param("format", "ndjson")
+                        .content(exported).with(csrf()).with(user(other)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(imported.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(1).toMillis());
+        mockMvc.perform(asyncDispatch(imported))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"imported\":1")));
+
+        mockMvc.perform(get("/api/todos/export").param("format", "xml").with(user(principal)))
+                .andExpect(status().isBadRequest());
+    }
+}
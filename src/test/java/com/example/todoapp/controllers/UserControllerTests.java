@@ -0,0 +1,95 @@
+package com.example.todoapp.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.models.AuthenticatedUser;
+import com.example.todoapp.models.Users;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class UserControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Users> users = new ArrayList<>();
+    private AuthenticatedUser principal;
+
+    @BeforeEach
+    void createUsers() {
+        for (int items : new int[] { 0, 2, 5 }) {
+            users.add(fixtures.createUser("listing", items));
+        }
+        principal = TestFixtures.principal(users.get(0));
+    }
+
+    @Test
+    void pagesAreSortedAndTellWhetherMoreFollow() throws Exception {
+        JsonNode first = page("/user?sort=id,desc&size=2&includeTodoCount=true");
+        assertThat(first.get("hasNext").asBoolean()).isTrue();
+        assertThat(first.get("content")).hasSize(2);
+        assertThat(first.at("/content/0/id").asLong()).isEqualTo(users.get(2).getId());
+        assertThat(first.at("/content/0/todoCount").asLong()).isEqualTo(5);
+        assertThat(first.at("/content/1/todoCount").asLong()).isEqualTo(2);
+
+        JsonNode second = page("/user?sort=id,desc&size=2&page=1&includeTodoCount=true");
+        assertThat(second.at("/content/0/id").asLong()).isEqualTo(users.get(0).getId());
+        assertThat(second.at("/content/0/todoCount").asLong()).isZero();
+    }
+
+    @Test
+    void responsesNeverExposePasswordsOrTodoItems() throws Exception {
+        JsonNode page = page("/user?size=1000");
+        assertThat(page.get("content")).allSatisfy(user -> assertThat(user.fieldNames())
+                .toIterable().containsExactly("id", "name", "username"));
+
+        mockMvc.perform(get("/user/{id}", users.get(1).getId()).param("includeTodoCount", "true").with(user(principal)))
+                .andExpect(jsonPath("$.username").value(users.get(1).getUsername()))
+                .andExpect(jsonPath("$.todoCount").value(2))
+                .andExpect(jsonPath("$.password").doesNotExist());
+    }
+
+    @Test
+    void sortingIsLimitedToPublicFields() throws Exception {
+        mockMvc.perform(get("/user").param("sort", "password").with(user(principal)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void pagesStartingBeyondTheLastRowOffsetAreBadRequests() throws Exception {
+        mockMvc.perform(get("/user").param("page", "2147484").param("size", "1000").with(user(principal)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/user").param("page", "2147483").param("size", "1000").with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    private JsonNode page(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url).with(user(principal)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
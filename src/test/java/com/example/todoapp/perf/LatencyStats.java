@@ -0,0 +1,82 @@
+package com.example.todoapp.perf;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-capacity recorder of request latencies, safe to fill from many threads.
+ */
+final class LatencyStats {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    LatencyStats(int capacity) {
+        this.samples = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Records the latency of a successful request; samples beyond the capacity are dropped.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    void record(long nanos) {
+        long index = count.getAndIncrement();
+        if (index < samples.length()) {
+            samples.set((int) index, nanos);
+        }
+    }
+
+    /**
+     * Records a failed request.
+     */
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    long count() {
+        return Math.min(count.get(), samples.length());
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    /**
+     * Computes a latency percentile over the recorded samples.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency at the percentile in milliseconds
+     */
+    double percentileMillis(double percentile) {
+        long[] sorted = sorted();
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * Formats throughput and latency percentiles.
+     *
+     * @param elapsedNanos the duration over which the samples were recorded
+     * @return a one-line summary
+     */
+    String summary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return String.format("requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p95=%.2f ms p99=%.2f ms",
+                count(), errors(), count() / seconds, percentileMillis(50), percentileMillis(95), percentileMillis(99));
+    }
+
+    private long[] sorted() {
+        long[] values = new long[(int) count()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = samples.get(i);
+        }
+        Arrays.sort(values);
+        return values;
+    }
+}
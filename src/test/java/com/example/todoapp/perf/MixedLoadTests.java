@@ -0,0 +1,231 @@
+package com.example.todoapp.perf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.todoapp.TodoAppApplication;
+
+/**
+ * End-to-end load test: starts the app on an in-memory H2 database, signs users up and in through the forms,
+ * then replays a mix of browsing, filtering, creating, editing and deleting todo items at a fixed concurrency,
+ * and reports throughput and latency percentiles per endpoint. Run with
+ * {@code mvn test -Pperf -Dtest=MixedLoadTests}, and tune with {@code -Dperf.concurrency}, {@code -Dperf.requests},
+ * {@code -Dperf.users}, {@code -Dperf.items} and {@code -Dperf.mix}, e.g.
+ * {@code -Dperf.mix=index:50,filter:20,create:15,edit:10,delete:5} (relative weights, zero or missing disables).
+ * {@code perf.requests} counts operations of the mix; an edit loads the form and submits it, i.e. sends two requests.
+ */
+@Tag("perf")
+class MixedLoadTests {
+
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 50);
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 20_000);
+    private static final int USERS = Integer.getInteger("perf.users", 20);
+    private static final int ITEMS_PER_USER = Integer.getInteger("perf.items", 50);
+    private static final String MIX = System.getProperty("perf.mix", "index:50,filter:20,create:15,edit:10,delete:5");
+
+    private static final Pattern EDIT_LINK = Pattern.compile("href=\"/edit/(\\d+)\"");
+
+    /**
+     * The operations of the mix. Editing times the form and its submission separately.
+     */
+    private enum Operation {
+        INDEX("GET /"), FILTER("GET /filter"), CREATE("POST /todo"), EDIT("GET /edit/{id}"),
+        UPDATE("POST /todo/{id}"), DELETE("GET /delete/{id}");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    /**
+     * A signed in user and the IDs of their todo items that no worker is currently editing or deleting.
+     * IDs are taken from the index pages the load fetches anyway, and an ID is never handed out twice at once.
+     */
+    private record UserSession(TodoAppClient client, ConcurrentLinkedDeque<Long> ids, Set<Long> known) {
+
+        UserSession(TodoAppClient client) {
+            this(client, new ConcurrentLinkedDeque<>(), ConcurrentHashMap.newKeySet());
+        }
+
+        void register(String page) {
+            Matcher matcher = EDIT_LINK.matcher(page);
+            while (matcher.find()) {
+                Long id = Long.valueOf(matcher.group(1));
+                if (known.add(id)) {
+                    ids.addFirst(id);
+                }
+            }
+        }
+    }
+
+    @Test
+    void mixedLoad() throws Exception {
+        Map<String, Integer> weights = parseMix(MIX);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TodoAppApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN");
+        try (ConfigurableApplicationContext app = builder.run()) {
+            URI baseUri = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/");
+            List<UserSession> users = new ArrayList<>();
+            for (int u = 0; u < USERS; u++) {
+                UserSession user = new UserSession(TodoAppClient.signUpAndIn(baseUri, "load-user" + u, "secret"));
+                for (int i = 0; i < ITEMS_PER_USER; i++) {
+                    create(user, i);
+                }
+                user.register(TodoAppClient.expectStatus(user.client().get("/?size=500"), 200).body());
+                users.add(user);
+            }
+
+            // Warm up, then measure
+            load(users, weights, REQUESTS / 10, newStats());
+            Map<Operation, LatencyStats> stats = newStats();
+            long start = System.nanoTime();
+            load(users, weights, REQUESTS, stats);
+            long elapsed = System.nanoTime() - start;
+
+            long total = stats.values().stream().mapToLong(LatencyStats::count).sum();
+            System.out.printf("%nMixed load (%s) with %d concurrent clients, %d users, %d items each%n",
+                    MIX, CONCURRENCY, USERS, ITEMS_PER_USER);
+            System.out.printf("total: requests=%d throughput=%.1f req/s%n", total, total / (elapsed / 1_000_000_000.0));
+            stats.forEach((operation, operationStats) -> {
+                if (operationStats.count() > 0 || operationStats.errors() > 0) {
+                    System.out.printf("%-18s %s%n", operation.endpoint + ":", operationStats.summary(elapsed));
+                }
+            });
+
+            stats.values().forEach(operationStats -> assertThat(operationStats.errors()).isZero());
+        }
+    }
+
+    private void load(List<UserSession> users, Map<String, Integer> weights, int requests,
+            Map<Operation, LatencyStats> stats) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(requests);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < CONCURRENCY; w++) {
+                UserSession user = users.get(w % users.size());
+                workers.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        run(user, pick(weights), stats);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private void run(UserSession user, String operation, Map<Operation, LatencyStats> stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case "index" -> timed(stats, Operation.INDEX, () -> {
+                user.register(TodoAppClient.expectStatus(user.client().get("/"), 200).body());
+            });
+            case "filter" -> timed(stats, Operation.FILTER, () -> {
+                LocalDate today = LocalDate.now();
+                String status = random.nextBoolean() ? "&completedCheckbox=true" : "&notCompletedCheckbox=true";
+                TodoAppClient.expectStatus(user.client().get("/filter?startDate=" + today.minusDays(30)
+                        + "&endDate=" + today.plusDays(1) + status), 200);
+            });
+            case "create" -> timed(stats, Operation.CREATE, () -> create(user, random.nextInt(1000)));
+            case "edit" -> {
+                Long id = user.ids().pollLast();
+                if (id == null) {
+                    return;
+                }
+                try {
+                    timed(stats, Operation.EDIT, () -> TodoAppClient.expectStatus(user.client().get("/edit/" + id), 200));
+                    timed(stats, Operation.UPDATE, () -> TodoAppClient.expectStatus(user.client().postForm("/todo/" + id,
+                            Map.of("description", "edited " + id, "isComplete", String.valueOf(random.nextBoolean()),
+                                    "itemCategory", "category " + random.nextInt(5), "quantity", "2",
+                                    "storeName", "store")), 302));
+                } finally {
+                    user.ids().addFirst(id);
+                }
+            }
+            case "delete" -> {
+                Long id = user.ids().pollLast();
+                if (id != null) {
+                    timed(stats, Operation.DELETE, () -> TodoAppClient.expectStatus(user.client().get("/delete/" + id), 302));
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    private static void create(UserSession user, int n) throws Exception {
+        TodoAppClient.expectStatus(user.client().postForm("/todo", Map.of("description", "item " + n,
+                "itemCategory", "category " + (n % 5), "quantity", "1", "storeName", "store")), 302);
+    }
+
+    private interface Request {
+        void send() throws Exception;
+    }
+
+    private static void timed(Map<Operation, LatencyStats> stats, Operation operation, Request request) {
+        long begin = System.nanoTime();
+        try {
+            request.send();
+            stats.get(operation).record(System.nanoTime() - begin);
+        } catch (Exception e) {
+            stats.get(operation).recordError();
+        }
+    }
+
+    private static Map<Operation, LatencyStats> newStats() {
+        Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new LatencyStats(REQUESTS));
+        }
+        return stats;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(parts[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("perf.mix has no operation with a positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    private static String pick(Map<String, Integer> weights) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int point = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            point -= weight.getValue();
+            if (point < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
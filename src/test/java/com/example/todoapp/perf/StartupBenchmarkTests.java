@@ -0,0 +1,117 @@
+package com.example.todoapp.perf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the time from launching the app to its first successful request, the sign-in page, between the
+ * executable jar and the fast-startup build, with and without lazy bean initialization. Each run is a new JVM
+ * connecting to the database set by the {@code SPRING_DATASOURCE_*} environment variables, as for the training run
+ * of the fast-startup build: the jars ship no in-memory database. Build both jars with
+ * {@code mvn -Pfast-startup package} first, then run with
+ * {@code mvn test -Pperf -Dtest=StartupBenchmarkTests}, and tune with {@code -Dperf.startup.runs}.
+ * The output of the app is written to {@code target/startup-benchmark.log}.
+ */
+@Tag("perf")
+class StartupBenchmarkTests {
+
+    private static final int RUNS = Integer.getInteger("perf.startup.runs", 5);
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private static final Path EXECUTABLE_JAR = Path.of("target", "todo-app-0.0.1-SNAPSHOT.jar");
+    private static final Path FAST_STARTUP_DIRECTORY = Path.of("target", "fast-startup");
+    private static final Path FAST_STARTUP_JAR = FAST_STARTUP_DIRECTORY.resolve("todo-app-fast-startup.jar");
+    private static final Path LOG = Path.of("target", "startup-benchmark.log");
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void compareStartupModes() throws Exception {
+        assumeTrue(Files.exists(EXECUTABLE_JAR) && Files.exists(FAST_STARTUP_JAR),
+                "build the jars with mvn -Pfast-startup package first");
+        Files.deleteIfExists(LOG);
+
+        String executable = measure(List.of("-jar", EXECUTABLE_JAR.toAbsolutePath().toString()), null);
+        List<String> fastStartup = List.of("-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true",
+                "-jar", FAST_STARTUP_JAR.getFileName().toString());
+        String aotAndCds = measure(fastStartup, FAST_STARTUP_DIRECTORY.toFile());
+        List<String> lazy = new ArrayList<>(fastStartup);
+        lazy.add("--spring.main.lazy-initialization=true");
+        String aotCdsAndLazy = measure(lazy, FAST_STARTUP_DIRECTORY.toFile());
+
+        System.out.printf("%nTime to the first successful GET /signin over %d runs%n", RUNS);
+        System.out.println("executable jar:               " + executable);
+        System.out.println("AOT and CDS archive:          " + aotAndCds);
+        System.out.println("AOT, CDS archive and lazy:    " + aotCdsAndLazy);
+    }
+
+    private String measure(List<String> arguments, File directory) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            millis[run] = startAndRequest(arguments, directory);
+        }
+        Arrays.sort(millis);
+        return String.format("min=%d ms median=%d ms max=%d ms", millis[0], millis[RUNS / 2], millis[RUNS - 1]);
+    }
+
+    private long startAndRequest(List<String> arguments, File directory) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(LOG.toFile()));
+        if (directory != null) {
+            builder.directory(directory);
+        }
+        HttpRequest signIn = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/signin"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process app = builder.start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                assertThat(app.isAlive()).as("the app exited, see " + LOG).isTrue();
+                try {
+                    if (httpClient.send(signIn, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("The app did not answer within " + TIMEOUT + ", see " + LOG);
+        } finally {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
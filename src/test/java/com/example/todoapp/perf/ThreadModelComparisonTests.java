@@ -0,0 +1,98 @@
+package com.example.todoapp.perf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.todoapp.TodoAppApplication;
+
+/**
+ * Compares throughput and tail latency of the index page between Tomcat's platform-thread pool
+ * and the virtual-threads mode, at high concurrency. Each mode runs on its own app instance and
+ * in-memory H2 database. Run with {@code mvn test -Pperf -Dtest=ThreadModelComparisonTests}, and
+ * tune with {@code -Dperf.concurrency}, {@code -Dperf.requests}, {@code -Dperf.users} and {@code -Dperf.items}.
+ */
+@Tag("perf")
+class ThreadModelComparisonTests {
+
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 400);
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 20_000);
+    private static final int USERS = Integer.getInteger("perf.users", 20);
+    private static final int ITEMS_PER_USER = Integer.getInteger("perf.items", 50);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        String platform = run(false);
+        String virtual = run(true);
+
+        System.out.printf("%nGET / with %d concurrent clients, %d users, %d items each%n",
+                CONCURRENCY, USERS, ITEMS_PER_USER);
+        System.out.println("platform threads: " + platform);
+        System.out.println("virtual threads:  " + virtual);
+    }
+
+    private String run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TodoAppApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:compare-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN");
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+        try (ConfigurableApplicationContext app = builder.run()) {
+            URI baseUri = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/");
+            List<TodoAppClient> clients = new ArrayList<>();
+            for (int u = 0; u < USERS; u++) {
+                TodoAppClient client = TodoAppClient.signUpAndIn(baseUri, mode + "-user" + u, "secret");
+                for (int i = 0; i < ITEMS_PER_USER; i++) {
+                    TodoAppClient.expectStatus(client.postForm("/todo", Map.of("description", "item " + i,
+                            "itemCategory", "category " + (i % 5), "quantity", "1", "storeName", "store")), 302);
+                }
+                clients.add(client);
+            }
+
+            // Warm up, then measure
+            load(clients, REQUESTS / 10, new LatencyStats(REQUESTS));
+            LatencyStats stats = new LatencyStats(REQUESTS);
+            long start = System.nanoTime();
+            load(clients, REQUESTS, stats);
+            long elapsed = System.nanoTime() - start;
+
+            assertThat(stats.errors()).isZero();
+            return stats.summary(elapsed);
+        }
+    }
+
+    private void load(List<TodoAppClient> clients, int requests, LatencyStats stats) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(requests);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < CONCURRENCY; w++) {
+                TodoAppClient client = clients.get(w % clients.size());
+                workers.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long begin = System.nanoTime();
+                        try {
+                            TodoAppClient.expectStatus(client.get("/"), 200);
+                            stats.record(System.nanoTime() - begin);
+                        } catch (Exception e) {
+                            stats.recordError();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+}
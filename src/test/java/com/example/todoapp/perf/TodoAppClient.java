@@ -0,0 +1,118 @@
+package com.example.todoapp.perf;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Browser-like HTTP client for one user of a running todo app: keeps the session cookie
+ * and submits forms with the CSRF token rendered in the pages, like the real forms do.
+ */
+final class TodoAppClient {
+
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final URI baseUri;
+    private final HttpClient http;
+    private String csrfToken;
+
+    private TodoAppClient(URI baseUri) {
+        this.baseUri = baseUri;
+        this.http = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Signs a new user up and in.
+     *
+     * @param baseUri  the base URI of the running app
+     * @param username the username of the new user
+     * @param password the password of the new user
+     * @return a client holding the session of the signed in user
+     */
+    static TodoAppClient signUpAndIn(URI baseUri, String username, String password) throws IOException, InterruptedException {
+        TodoAppClient client = new TodoAppClient(baseUri);
+        client.loadCsrfToken("/signup");
+        expectStatus(client.postForm("/signup", Map.of("name", username, "username", username, "password", password)), 200);
+        client.loadCsrfToken("/signin");
+        HttpResponse<String> signin = client.postForm("/signin", Map.of("username", username, "password", password));
+        if (signin.statusCode() != 302 || signin.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IllegalStateException("Sign in failed for " + username + ": " + signin.statusCode());
+        }
+        // The session and its CSRF token are renewed on sign in
+        client.loadCsrfToken("/create-todo");
+        return client;
+    }
+
+    /**
+     * Sends a GET request.
+     *
+     * @param path the path and query of the request
+     * @return the response
+     */
+    HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(baseUri.resolve(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Submits a form with the current CSRF token.
+     *
+     * @param path   the path the form is posted to
+     * @param fields the form fields
+     * @return the response
+     */
+    HttpResponse<String> postForm(String path, Map<String, String> fields) throws IOException, InterruptedException {
+        Map<String, String> form = new LinkedHashMap<>(fields);
+        form.put("_csrf", csrfToken);
+        String body = form.entrySet().stream()
+                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                .collect(Collectors.joining("&"));
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Fails unless a response has the expected status.
+     *
+     * @param response the response to check
+     * @param status   the expected status
+     * @return the response
+     */
+    static HttpResponse<String> expectStatus(HttpResponse<String> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                    + " answered " + response.statusCode() + " instead of " + status);
+        }
+        return response;
+    }
+
+    private void loadCsrfToken(String formPath) throws IOException, InterruptedException {
+        String page = expectStatus(get(formPath), 200).body();
+        Matcher matcher = CSRF_TOKEN.matcher(page);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No CSRF token in " + formPath);
+        }
+        csrfToken = matcher.group(1);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
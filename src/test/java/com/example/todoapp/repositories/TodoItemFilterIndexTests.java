@@ -0,0 +1,139 @@
+package com.example.todoapp.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.todoapp.dto.TodoItemFilter;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.TodoItem;
+
+/**
+ * Checks that the filter queries are served by the composite indexes declared on {@link TodoItem}
+ * on a million-row H2 dataset, explaining the SQL Hibernate generates for them.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.todoapp.repositories.TodoItemFilterIndexTests$CapturedStatements")
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoItemFilterIndexTests {
+
+    private static final int USERS = 1_000;
+    private static final int ITEMS = 1_000_000;
+    private static final Instant EPOCH = Instant.parse("2023-01-01T00:00:00Z");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into users (id, name, password, username)"
+                + " select x, 'user' || x, 'secret', 'user' || x from system_range(1, ?)", USERS);
+        // One item per second, spread round-robin over the users, every other item complete
+        jdbcTemplate.update("insert into todo_items"
+                + " (id, description, is_complete, created_at, updated_at, item_category, quantity, store_name, user_id)"
+                + " select x, 'item ' || x, mod(x, 2) = 0,"
+                + " dateadd(second, x, timestamp with time zone '2023-01-01 00:00:00+00'),"
+                + " dateadd(second, x, timestamp with time zone '2023-01-01 00:00:00+00'),"
+                + " 'category ' || mod(x, 10), 1, 'store ' || mod(x, 7), mod(x, ?) + 1"
+                + " from system_range(1, ?)", USERS, ITEMS);
+        jdbcTemplate.execute("alter sequence todo_items_seq restart with " + (ITEMS + 1));
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void filterByUserAndDateRangeUsesUserCreatedIndex() {
+        String plan = explainViews(new TodoItemFilter(42L, EPOCH.plusSeconds(86_400), EPOCH.plusSeconds(2 * 86_400),
+                null, null, null));
+
+        assertThat(plan).containsIgnoringCase("idx_todo_items_user_created");
+    }
+
+    @Test
+    void filterByUserStatusAndDateRangeUsesUserCompleteCreatedIndex() {
+        String plan = explainViews(new TodoItemFilter(42L, EPOCH.plusSeconds(86_400), EPOCH.plusSeconds(2 * 86_400),
+                true, null, null));
+
+        assertThat(plan).containsIgnoringCase("idx_todo_items_user_complete_created");
+    }
+
+    @Test
+    void filterCombinesEveryCriterion() {
+        Instant start = EPOCH.plusSeconds(86_400);
+        Instant end = EPOCH.plusSeconds(2 * 86_400);
+        // User 43 owns the items where x = 42 (mod 1000): all of them complete and in category 2
+        TodoItemFilter filter = new TodoItemFilter(43L, start, end, true, "category 2", null);
+
+        List<TodoItem> items = todoItemRepository.findBy(TodoItemSpecifications.matching(filter),
+                query -> query.sortBy(TodoItemSpecifications.SEEK_ORDER).limit(1_000).all());
+
+        assertThat(items).isNotEmpty().allSatisfy(item -> {
+            assertThat(item.getIsComplete()).isTrue();
+            assertThat(item.getItemCategory()).isEqualTo("category 2");
+            assertThat(item.getCreatedAt()).isBetween(start, end);
+        });
+        assertThat(items).isSortedAccordingTo((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
+    }
+
+    @Test
+    void viewsFollowTheSeekOrder() {
+        List<TodoItemView> views = todoItemRepository.findViews(TodoItemSpecifications.belongsTo(43L),
+                TodoItemSpecifications.SEEK_ORDER, 51);
+
+        assertThat(views).hasSize(51);
+        assertThat(views).extracting(TodoItemView::id).isSorted();
+        assertThat(views).extracting(TodoItemView::itemCategory).containsOnly("category 2");
+    }
+
+    /**
+     * Explains the query Hibernate runs to list the first page of a filter, as prepared: H2 plans it
+     * without the values of its parameters.
+     */
+    private String explainViews(TodoItemFilter filter) {
+        CapturedStatements.SQL.clear();
+        todoItemRepository.findViews(TodoItemSpecifications.matching(filter), TodoItemSpecifications.SEEK_ORDER, 51);
+        assertThat(CapturedStatements.SQL).hasSize(1);
+
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement explain = connection.prepareStatement("explain " + CapturedStatements.SQL.get(0));
+                    ResultSet result = explain.executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        });
+    }
+
+    /**
+     * Records the SQL of the statements Hibernate prepares.
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todoapp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "spring.main.lazy-initialization=true")
+class LazyInitializationTests {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void changeTrackingIsSetUpAtStartup() {
+        assertThat(beanFactory.containsSingleton("todoItemChangeListener")).isTrue();
+        assertThat(beanFactory.containsSingleton("todoItemSearchService")).isTrue();
+        assertThat(beanFactory.containsSingleton("userListingService")).isFalse();
+    }
+}
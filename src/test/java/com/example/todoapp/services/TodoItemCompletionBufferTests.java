@@ -0,0 +1,89 @@
+package com.example.todoapp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemFilter;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.repositories.TodoItemRepository;
+
+@SpringBootTest(properties = "todoapp.toggle.flush-interval=1h")
+@Import(TestFixtures.class)
+class TodoItemCompletionBufferTests {
+
+    @Autowired
+    private TodoItemCompletionBuffer completionBuffer;
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private TodoItemStatsService todoItemStatsService;
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Users user;
+    private Long itemId;
+
+    @BeforeEach
+    void createItem() {
+        user = fixtures.createUser("toggle", new TodoItemRequest(null, "Arroz", false, null, 1, null));
+        itemId = todoItemService.findByUser(user).get(0).getId();
+    }
+
+    @Test
+    void readsSeeThePendingStatusUntilItIsFlushed() {
+        assertThat(todoItemStatsService.get(user.getId()).complete()).isZero();
+        assertThat(completionBuffer.toggle(user.getId(), itemId)).isTrue();
+
+        assertThat(stored()).isFalse();
+        assertThat(listed().isComplete()).isTrue();
+        assertThat(todoItemService.getById(itemId).orElseThrow().getIsComplete()).isTrue();
+
+        completionBuffer.flush();
+
+        assertThat(stored()).isTrue();
+        assertThat(completionBuffer.pendingStatus(itemId)).isNull();
+        // Moved by the flushed update itself, the statistics aren't rebuilt
+        assertThat(todoItemStatsService.get(user.getId()).complete()).isEqualTo(1);
+        assertThat(todoItemStatsService.get(user.getId()).incomplete()).isZero();
+    }
+
+    @Test
+    void repeatedTogglesCoalesce() {
+        completionBuffer.toggle(user.getId(), itemId);
+        completionBuffer.toggle(user.getId(), itemId);
+
+        assertThat(completionBuffer.pendingStatus(itemId)).isNull();
+
+        completionBuffer.toggle(user.getId(), itemId);
+        completionBuffer.flush();
+        completionBuffer.toggle(user.getId(), itemId);
+
+        assertThat(stored()).isTrue();
+        assertThat(listed().isComplete()).isFalse();
+    }
+
+    @Test
+    void onlyTheOwnerCanToggle() {
+        assertThatThrownBy(() -> completionBuffer.toggle(user.getId() + 1000, itemId))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private boolean stored() {
+        return todoItemRepository.findCompletionByIdAndUserId(itemId, user.getId()).orElseThrow();
+    }
+
+    private TodoItemView listed() {
+        return todoItemService.findPage(TodoItemFilter.forUser(user.getId()), null, null, 10).items().get(0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.todoapp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemFileFormat;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.models.Users;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class TodoItemExportServiceTests {
+
+    @Autowired
+    private TodoItemExportService todoItemExportService;
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Users user;
+
+    @BeforeEach
+    void createItems() {
+        user = fixtures.createUser("export",
+                new TodoItemRequest(null, "Arroz, feijão", false, "mercado", 2, "Loja \"A\""),
+                new TodoItemRequest(null, "Pão", true, "padaria", 1, null));
+    }
+
+    @Test
+    void exportsCsvWithQuotedFields() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = todoItemExportService.export(user.getId(), TodoItemFileFormat.CSV, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("id,description,isComplete,itemCategory,quantity,storeName,createdAt");
+        assertThat(lines.get(1)).contains(",\"Arroz, feijão\",false,mercado,2,\"Loja \"\"A\"\"\",");
+        assertThat(lines.get(2)).contains(",Pão,true,padaria,1,,");
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        todoItemExportService.export(user.getId(), TodoItemFileFormat.NDJSON, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("{").contains("\"description\":\"Arroz, feijão\"");
+        assertThat(lines.get(1)).contains("\"isComplete\":true");
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.todoapp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemFileFormat;
+import com.example.todoapp.dto.TodoItemImportError;
+import com.example.todoapp.dto.TodoItemImportProgress;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = "todoapp.batch.chunk-size=2")
+@Import(TestFixtures.class)
+class TodoItemImportServiceTests {
+
+    @Autowired
+    private TodoItemImportService todoItemImportService;
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Users user;
+
+    @BeforeEach
+    void createUser() {
+        user = fixtures.createUser("import");
+    }
+
+    @Test
+    void importsCsvInChunksAndReportsRejectedRows() throws Exception {
+        String csv = """
+                storeName,description,quantity,isComplete
+                Loja "A",Arroz,2,false
+                ,"Feijão, preto",1,true
+                ,,3,false
+                "Padaria
+                Central",Pão,x,false
+                Feira,Banana,6,false
+                """;
+        List<TodoItemImportProgress> reports = new ArrayList<>();
+
+        TodoItemImportProgress result = todoItemImportService.importItems(user.getId(), TodoItemFileFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), reports::add);
+
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.chunk()).isEqualTo(2);
+        assertThat(reports).hasSize(3);
+        assertThat(reports.get(0).errors()).isEmpty();
+        assertThat(reports.get(1).errors()).extracting(TodoItemImportError::line).containsExactly(4L, 5L);
+        assertThat(reports.get(2).done()).isTrue();
+
+        List<TodoItem> items = todoItemService.findByUser(user);
+        assertThat(items).extracting(TodoItem::getDescription).containsExactlyInAnyOrder("Arroz", "Feijão, preto",
+                "Banana");
+        assertThat(items).filteredOn(item -> item.getDescription().equals("Feijão, preto"))
+                .allMatch(TodoItem::getIsComplete);
+    }
+
+    @Test
+    void importsNdjsonIgnoringIds() throws Exception {
+        String ndjson = """
+                {"id":999999,"description":"Leite","quantity":2}
+                {"description":""}
+                not json
+                {"description":"Café","storeName":"Mercado"}
+                """;
+
+        List<TodoItemImportError> errors = new ArrayList<>();
+
+        TodoItemImportProgress result = todoItemImportService.importItems(user.getId(), TodoItemFileFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                progress -> errors.addAll(progress.errors()));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(errors).extracting(TodoItemImportError::line).containsExactly(2L, 3L);
+        assertThat(todoItemService.findByUser(user)).extracting(TodoItem::getDescription)
+                .containsExactlyInAnyOrder("Leite", "Café");
+    }
+
+    @Test
+    void rejectsEachInvalidRowWithoutFailingItsChunk() throws Exception {
+        String longText = "x".repeat(TodoItem.TEXT_LENGTH + 1);
+        String csv = "description,isComplete,itemCategory,storeName\n"
+                + "Arroz,yes,,\n"
+                + longText + ",false,,\n"
+                + "Feijão,TRUE,,\n"
+                + "Leite,false," + longText + ",\n"
+                + "Café,,,\n"
+                + "Pão,false,," + longText + "\n";
+
+        TodoItemImportProgress csvResult = todoItemImportService.importItems(user.getId(), TodoItemFileFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), progress -> { });
+
+        assertThat(csvResult.imported()).isEqualTo(2);
+        assertThat(csvResult.rejected()).isEqualTo(4);
+
+        String ndjson = "null\n{\"description\":\"" + longText + "\"}\n{\"description\":\"Açúcar\"}\n";
+        List<TodoItemImportError> errors = new ArrayList<>();
+
+        TodoItemImportProgress ndjsonResult = todoItemImportService.importItems(user.getId(),
+                TodoItemFileFormat.NDJSON, new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                progress -> errors.addAll(progress.errors()));
+
+        assertThat(ndjsonResult.imported()).isEqualTo(1);
+        assertThat(errors).extracting(TodoItemImportError::line).containsExactly(1L, 2L);
+        assertThat(todoItemService.findByUser(user)).extracting(TodoItem::getDescription)
+                .containsExactlyInAnyOrder("Feijão", "Café", "Açúcar");
+        assertThat(todoItemService.findByUser(user)).filteredOn(item -> item.getDescription().equals("Feijão"))
+                .allMatch(TodoItem::getIsComplete);
+    }
+
+    @Test
+    void reportsFilesOfOnlyInvalidRowsAsTheyAreRead() throws Exception {
+        List<TodoItemImportProgress> reports = new ArrayList<>();
+
+        todoItemImportService.importItems(user.getId(), TodoItemFileFormat.NDJSON,
+                new ByteArrayInputStream("x\n".repeat(5).getBytes(StandardCharsets.UTF_8)), reports::add);
+
+        assertThat(reports).extracting(TodoItemImportProgress::rejected).containsExactly(2L, 4L, 5L);
+        assertThat(reports).extracting(TodoItemImportProgress::imported).containsOnly(0L);
+
+        // With chunks larger than the errors detailed per report, the others are only counted
+        TodoItemImportService largeChunks = new TodoItemImportService(todoItemService, objectMapper, 1000);
+        int rows = TodoItemImportService.MAX_ERRORS_PER_REPORT + 50;
+
+        TodoItemImportProgress result = largeChunks.importItems(user.getId(), TodoItemFileFormat.NDJSON,
+                new ByteArrayInputStream("x\n".repeat(rows).getBytes(StandardCharsets.UTF_8)), progress -> { });
+
+        assertThat(result.rejected()).isEqualTo(rows);
+        assertThat(result.errors()).hasSize(TodoItemImportService.MAX_ERRORS_PER_REPORT);
+        assertThat(result.omittedErrors()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.todoapp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.repositories.TodoItemRepository;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class TodoItemSearchServiceTests {
+
+    @Autowired
+    private TodoItemSearchService todoItemSearchService;
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private TodoItemCompletionBuffer completionBuffer;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserVersionService userVersionService;
+
+    private Users user;
+
+    @BeforeEach
+    void createItems() {
+        user = fixtures.createUser("search",
+                new TodoItemRequest(null, "Feijão preto", false, "Mercearia", 2, "Pão de Açúcar"),
+                new TodoItemRequest(null, "Arroz integral", false, "Mercearia", 1, "Atacadão"),
+                new TodoItemRequest(null, "Pão francês", true, "Padaria", 10, null));
+        fixtures.createUser("search", new TodoItemRequest(null, "Feijão carioca", false, null, 1, null));
+    }
+
+    @Test
+    void matchesPrefixesWithoutAccentsWithinTheUser() {
+        assertThat(descriptions("feijao")).containsExactly("Feijão preto");
+        assertThat(descriptions("PAO")).containsExactlyInAnyOrder("Feijão preto", "Pão francês");
+        assertThat(descriptions("merc acu")).containsExactly("Feijão preto");
+        assertThat(descriptions("atac arr")).containsExactly("Arroz integral");
+        assertThat(descriptions("banana")).isEmpty();
+        assertThat(descriptions(" ")).isEmpty();
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        TodoItem rice = todoItemService.findByUser(user).stream()
+                .filter(item -> item.getDescription().startsWith("Arroz"))
+                .findFirst()
+                .orElseThrow();
+        rice.setDescription("Macarrão");
+        todoItemService.save(rice);
+
+        assertThat(descriptions("arroz")).isEmpty();
+        assertThat(descriptions("macarrao")).containsExactly("Macarrão");
+
+        todoItemService.deleteAll(user.getId(), List.of(rice.getId()));
+
+        assertThat(descriptions("macarrao")).isEmpty();
+    }
+
+    @Test
+    void buildsFromTheDatabase() {
+        TodoItemSearchService rebuilt = new TodoItemSearchService(todoItemRepository, completionBuffer,
+                transactionTemplate, userVersionService);
+        rebuilt.afterSingletonsInstantiated();
+
+        assertThat(rebuilt.search(user.getId(), "feij", 10)).extracting(TodoItemView::description)
+                .containsExactly("Feijão preto");
+    }
+
+    @Test
+    void keepsTheWritesCommittedWhileRebuilding() {
+        TodoItem bread = todoItemService.findByUser(user).stream()
+                .filter(item -> item.getDescription().startsWith("Pão"))
+                .findFirst()
+                .orElseThrow();
+        TodoItemSearchService[] rebuilding = new TodoItemSearchService[1];
+        // A write of the item commits once the rebuild has read it, before the rebuilt index replaces the old one
+        TodoItemRepository repository = (TodoItemRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { TodoItemRepository.class }, (proxy, method, args) -> {
+                    Object result = method.invoke(todoItemRepository, args);
+                    if (method.getName().equals("streamSearchDocumentsByUserId")) {
+                        bread.setDescription("Broa de milho");
+                        rebuilding[0].index(bread);
+                    }
+                    return result;
+                });
+        rebuilding[0] = new TodoItemSearchService(repository, completionBuffer, transactionTemplate,
+                userVersionService);
+        rebuilding[0].afterSingletonsInstantiated();
+
+        rebuilding[0].reindex(user.getId());
+
+        assertThat(rebuilding[0].search(user.getId(), "broa", 10)).extracting(TodoItemView::id)
+                .containsExactly(bread.getId());
+        assertThat(rebuilding[0].search(user.getId(), "frances", 10)).isEmpty();
+    }
+
+    @Test
+    void limitsToTheNewestItemsByCreationTime() {
+        Users shopper = fixtures.createUser("search", 5);
+        // Pooled IDs don't follow creation time: make the highest IDs the oldest items
+        jdbcTemplate.update("UPDATE todo_items SET created_at = DATEADD('SECOND', -id, CURRENT_TIMESTAMP)"
+                + " WHERE user_id = ?", shopper.getId());
+        todoItemSearchService.reindex(shopper.getId());
+
+        List<Long> newest = todoItemService.findByUser(shopper).stream().map(TodoItem::getId).sorted().limit(2)
+                .toList();
+        assertThat(todoItemSearchService.search(shopper.getId(), "item", 2)).extracting(TodoItemView::id)
+                .containsExactlyElementsOf(newest);
+    }
+
+    private List<String> descriptions(String query) {
+        return todoItemSearchService.search(user.getId(), query, 10).stream().map(TodoItemView::description).toList();
+    }
+}
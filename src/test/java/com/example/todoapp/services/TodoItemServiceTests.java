@@ -0,0 +1,113 @@
+package com.example.todoapp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.repositories.TodoItemRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "todoapp.metrics.hibernate-statistics=true")
+@Import(TestFixtures.class)
+class TodoItemServiceTests {
+
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void saveAllBatchesInserts() {
+        Users user = fixtures.createUser("batch-insert");
+        List<TodoItemRequest> requests = IntStream.range(0, 1_200)
+                .mapToObj(i -> new TodoItemRequest(null, "item " + i, i % 2 == 0, "category", i, "store"))
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<TodoItemView> saved = todoItemService.saveAll(user.getId(), requests);
+
+        assertThat(saved).hasSize(1_200).allSatisfy(view -> assertThat(view.id()).isNotNull());
+        assertThat(saved).extracting(TodoItemView::description).startsWith("item 0", "item 1");
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1_200);
+        // 1200 rows in batches of 50, plus the pooled sequence calls: far from one statement per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(100);
+    }
+
+    @Test
+    void saveAllUpdatesOwnedItems() {
+        Users user = fixtures.createUser("batch-update");
+        List<TodoItemView> created = todoItemService.saveAll(user.getId(),
+                List.of(new TodoItemRequest(null, "before", false, null, 1, null)));
+
+        Long id = created.get(0).id();
+        todoItemService.saveAll(user.getId(), List.of(new TodoItemRequest(id, "after", true, "category", 3, "store")));
+
+        assertThat(todoItemRepository.findById(id)).hasValueSatisfying(item -> {
+            assertThat(item.getDescription()).isEqualTo("after");
+            assertThat(item.getIsComplete()).isTrue();
+            assertThat(item.getQuantity()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void saveAllRejectsItemsOfAnotherUser() {
+        Users owner = fixtures.createUser("batch-owner");
+        Users other = fixtures.createUser("batch-other");
+        Long id = todoItemService.saveAll(owner.getId(),
+                List.of(new TodoItemRequest(null, "mine", false, null, 1, null))).get(0).id();
+
+        assertThatThrownBy(() -> todoItemService.saveAll(other.getId(),
+                List.of(new TodoItemRequest(id, "stolen", true, null, 1, null))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bulkOperationsOnlyTouchTheOwnersItems() {
+        Users owner = fixtures.createUser("bulk-owner");
+        Users other = fixtures.createUser("bulk-other");
+        List<Long> mine = todoItemService.saveAll(owner.getId(), List.of(
+                new TodoItemRequest(null, "a", false, null, 1, null),
+                new TodoItemRequest(null, "b", false, null, 1, null))).stream().map(TodoItemView::id).toList();
+        Long theirs = todoItemService.saveAll(other.getId(),
+                List.of(new TodoItemRequest(null, "c", false, null, 1, null))).get(0).id();
+
+        assertThat(todoItemService.completeAll(owner.getId(), List.of(mine.get(0), mine.get(1), theirs))).isEqualTo(2);
+        assertThat(todoItemRepository.findById(theirs)).hasValueSatisfying(item -> assertThat(item.getIsComplete()).isFalse());
+
+        assertThat(todoItemService.deleteAll(owner.getId(), List.of(mine.get(0), theirs))).isEqualTo(1);
+        assertThat(todoItemRepository.findById(mine.get(0))).isEmpty();
+        assertThat(todoItemRepository.findById(theirs)).isPresent();
+    }
+
+    @Test
+    void deleteCompletedBeforeKeepsOpenAndRecentItems() {
+        Users owner = fixtures.createUser("bulk-completed");
+        List<Long> ids = todoItemService.saveAll(owner.getId(), List.of(
+                new TodoItemRequest(null, "done", true, null, 1, null),
+                new TodoItemRequest(null, "open", false, null, 1, null))).stream().map(TodoItemView::id).toList();
+
+        assertThat(todoItemService.deleteCompletedBefore(owner.getId(), Instant.now().minusSeconds(3600))).isZero();
+        assertThat(todoItemService.deleteCompletedBefore(owner.getId(), Instant.now().plusSeconds(1))).isEqualTo(1);
+        assertThat(todoItemRepository.findAllById(ids)).extracting(item -> item.getDescription()).containsExactly("open");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.todoapp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemStats;
+import com.example.todoapp.dto.TodoItemStatsGroup;
+import com.example.todoapp.models.TodoItem;
+import com.example.todoapp.models.Users;
+import com.example.todoapp.repositories.TodoItemRepository;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class TodoItemStatsServiceTests {
+
+    @Autowired
+    private TodoItemStatsService todoItemStatsService;
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private TodoItemRepository todoItemRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Users user;
+
+    @BeforeEach
+    void createItems() {
+        user = fixtures.createUser("stats",
+                new TodoItemRequest(null, "Arroz", false, "mercado", 2, "Loja A"),
+                new TodoItemRequest(null, "Feijão", false, "mercado", 3, "Loja A"),
+                new TodoItemRequest(null, "Pão", true, "padaria", null, null));
+    }
+
+    @Test
+    void followsInsertsUpdatesAndDeletes() {
+        TodoItemStats stats = todoItemStatsService.get(user.getId());
+        assertThat(stats.complete()).isEqualTo(1);
+        assertThat(stats.incomplete()).isEqualTo(2);
+        assertThat(stats.quantity()).isEqualTo(5);
+        assertThat(stats.groups()).contains(new TodoItemStatsGroup(false, "mercado", "Loja A", 2L, 5L));
+
+        TodoItem rice = item("Arroz");
+        rice.setIsComplete(true);
+        rice.setItemCategory("grãos");
+        rice.setQuantity(4);
+        todoItemService.save(rice);
+        todoItemService.delete(item("Pão"));
+        todoItemService.save(newItem("Leite", 1));
+
+        stats = todoItemStatsService.get(user.getId());
+        assertThat(stats.complete()).isEqualTo(1);
+        assertThat(stats.incomplete()).isEqualTo(2);
+        assertThat(stats.quantity()).isEqualTo(8);
+        assertMatchesTable(stats);
+    }
+
+    @Test
+    void isRecountedAfterBulkStatements() {
+        todoItemStatsService.get(user.getId());
+
+        todoItemService.completeAll(user.getId(), List.of(item("Arroz").getId(), item("Feijão").getId()));
+
+        TodoItemStats stats = todoItemStatsService.get(user.getId());
+        assertThat(stats.complete()).isEqualTo(3);
+        assertThat(stats.incomplete()).isZero();
+        assertMatchesTable(stats);
+    }
+
+    @Test
+    void loadsSeeingAWriteInFlightAreNotKept() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            todoItemRepository.saveAndFlush(newItem("Leite", 1));
+            // Built from a table that already holds the uncommitted item, whose commit is counted again
+            assertThat(todoItemStatsService.get(user.getId()).incomplete()).isEqualTo(3);
+        });
+
+        TodoItemStats stats = todoItemStatsService.get(user.getId());
+        assertThat(stats.incomplete()).isEqualTo(3);
+        assertMatchesTable(stats);
+        todoItemService.delete(item("Leite"));
+        assertThat(todoItemStatsService.get(user.getId()).incomplete()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildRecountsTheStatisticsKept() {
+        todoItemStatsService.get(user.getId());
+        jdbcTemplate.update("UPDATE todo_items SET is_complete = true WHERE user_id = ?", user.getId());
+
+        todoItemStatsService.rebuild();
+        // Recounted by the rebuild itself, not by the next read
+        jdbcTemplate.update("UPDATE todo_items SET is_complete = false WHERE user_id = ?", user.getId());
+
+        assertThat(todoItemStatsService.get(user.getId()).complete()).isEqualTo(3);
+    }
+
+    private void assertMatchesTable(TodoItemStats stats) {
+        assertThat(stats.groups())
+                .containsExactlyInAnyOrderElementsOf(todoItemRepository.countGroupsByUserId(user.getId()));
+    }
+
+    private TodoItem item(String description) {
+        return todoItemService.findByUser(user).stream()
+                .filter(item -> item.getDescription().equals(description))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private TodoItem newItem(String description, int quantity) {
+        TodoItem item = new TodoItem();
+        item.setUser(user);
+        item.setDescription(description);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
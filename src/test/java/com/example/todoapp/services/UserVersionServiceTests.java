@@ -0,0 +1,62 @@
+package com.example.todoapp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.todoapp.TestFixtures;
+import com.example.todoapp.dto.TodoItemRequest;
+import com.example.todoapp.dto.TodoItemView;
+import com.example.todoapp.models.Users;
+
+@SpringBootTest(properties = "todoapp.shared-versions.enabled=true")
+@Import(TestFixtures.class)
+class UserVersionServiceTests {
+
+    @Autowired
+    private UserVersionService userVersionService;
+    @Autowired
+    private TodoItemStatsService todoItemStatsService;
+    @Autowired
+    private TodoItemSearchService todoItemSearchService;
+    @Autowired
+    private TodoItemService todoItemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void writesOfAnotherNodeReachTheVersionAndTheCachesOfThisOne() {
+        Users user = fixtures.createUser("shared", new TodoItemRequest(null, "Arroz", false, null, 1, null));
+        long written = userVersionService.current(user.getId()).counter();
+        assertThat(written).isPositive();
+        assertThat(todoItemStatsService.get(user.getId()).incomplete()).isEqualTo(1);
+        assertThat(todoItemSearchService.search(user.getId(), "feijao", 10)).isEmpty();
+
+        // This node's own writes move the shared version and its caches alike
+        todoItemService.saveAll(user.getId(), List.of(
+                new TodoItemRequest(null, "Leite", false, null, 1, null)));
+        assertThat(userVersionService.current(user.getId()).counter()).isEqualTo(written + 1);
+        assertThat(todoItemStatsService.get(user.getId()).incomplete()).isEqualTo(2);
+
+        // Another node writes an item, which this node sees no event of, and moves the shared version
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("INSERT INTO todo_items (id, user_id, description, is_complete, created_at, updated_at)"
+                + " VALUES (NEXT VALUE FOR todo_items_seq, ?, 'Feijão', false, ?, ?)", user.getId(), now, now);
+        jdbcTemplate.update("UPDATE user_versions SET counter = counter + 1 WHERE user_id = ?", user.getId());
+
+        assertThat(userVersionService.current(user.getId()).counter()).isEqualTo(written + 2);
+        assertThat(todoItemStatsService.get(user.getId()).incomplete()).isEqualTo(3);
+        assertThat(todoItemSearchService.search(user.getId(), "feijao", 10)).extracting(TodoItemView::description)
+                .containsExactly("Feijão");
+    }
+}